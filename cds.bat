@@ -0,0 +1,37 @@
+@echo off
+echo ================================================
+echo    Vokabeltrainer: CDS-Archiv fuer schnellen Start
+echo ================================================
+echo.
+
+REM Erst start.bat ausfuehren, damit die JARs vorhanden sind
+javac -encoding UTF-8 -d classes -cp "sqlite-jdbc.jar" src\main\java\vokabeltrainer\Vokabeltrainer.java
+
+if %ERRORLEVEL% NEQ 0 (
+    echo.
+    echo FEHLER beim Kompilieren!
+    pause
+    exit /b 1
+)
+
+REM CDS archiviert nur Klassen aus JAR-Dateien, nicht aus Verzeichnissen
+if exist vokabeltrainer.jsa del vokabeltrainer.jsa
+jar cfe vokabeltrainer.jar vokabeltrainer.Vokabeltrainer -C classes .
+set CP=vokabeltrainer.jar;sqlite-jdbc.jar;slf4j-api.jar;slf4j-simple.jar
+
+echo Startzeit ohne Archiv:
+for /L %%i in (1,1,3) do java -cp "%CP%" vokabeltrainer.Vokabeltrainer --startup-trace=exit | findstr "first-paint interactive"
+echo.
+
+REM Trainingslauf: das Fenster oeffnet sich kurz, beim Beenden werden alle geladenen Klassen archiviert
+echo Erzeuge vokabeltrainer.jsa...
+java -XX:ArchiveClassesAtExit=vokabeltrainer.jsa -cp "%CP%" vokabeltrainer.Vokabeltrainer --startup-trace=exit > nul
+echo.
+
+echo Startzeit mit Archiv:
+for /L %%i in (1,1,3) do java -XX:SharedArchiveFile=vokabeltrainer.jsa -cp "%CP%" vokabeltrainer.Vokabeltrainer --startup-trace=exit | findstr "first-paint interactive"
+echo.
+echo start.bat verwendet das Archiv ab jetzt automatisch.
+echo Nach Aenderungen an Vokabeltrainer.java cds.bat erneut ausfuehren.
+
+pause
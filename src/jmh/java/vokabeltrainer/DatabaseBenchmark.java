@@ -0,0 +1,114 @@
+package vokabeltrainer;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelListener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Database reads and writes, export, the table model and the statistics dashboard on a generated set. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DatabaseBenchmark {
+    private static final int BATCH_ROWS = 100;
+
+    private int nextWord;
+    private int nextSearch;
+    private long today;
+    private VokabelTableModel model;
+
+    @Setup
+    public void setUp(Dataset data) {
+        today = AnswerStatistics.epochDay(System.currentTimeMillis(), ZoneId.systemDefault());
+        model = new VokabelTableModel(data.async);
+    }
+
+    @Benchmark
+    public Object getVokabelnBySet(Dataset data) throws Exception {
+        return data.db.getVokabelnBySet(data.setId);
+    }
+
+    @Benchmark
+    public Object getVokabelnBySetCached(Dataset data) throws Exception {
+        return data.cached.getVokabelnBySet(data.setId);
+    }
+
+    @Benchmark
+    public Object getAllSets(Dataset data) throws Exception {
+        return data.db.getAllSets();
+    }
+
+    @Benchmark
+    public void addVokabelSingle(Dataset data) throws Exception {
+        data.db.addVokabel(data.scratchSetId, "neu" + nextWord++, "new");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_ROWS)
+    public void addVokabelBatch(Dataset data) throws Exception {
+        List<String[]> rows = new ArrayList<>(BATCH_ROWS);
+        for (int r = 0; r < BATCH_ROWS; r++) rows.add(new String[]{"neu" + nextWord++, "new"});
+        data.db.insertVokabelnBatch(data.scratchSetId, rows, DuplicatePolicy.KEEP_BOTH, null);
+    }
+
+    @Benchmark
+    public Object searchVokabeln(Dataset data) throws Exception {
+        return data.db.searchVokabeln(Dataset.SYLLABLES[nextSearch++ % Dataset.SYLLABLES.length], 50);
+    }
+
+    @Benchmark
+    public Object exportCsv(Dataset data) throws Exception {
+        return new VokabelExporter(data.db).export(data.dir.resolve("export.csv"), data.setId, VokabelExporter.Format.CSV);
+    }
+
+    @Benchmark
+    public Object exportBinary(Dataset data) throws Exception {
+        return new VokabelExporter(data.db).export(data.dir.resolve("export.vokb"), data.setId, VokabelExporter.Format.BINARY);
+    }
+
+    /** Same steps as ManageSetPanel.loadVokabeln: count, then wait for the first visible page. */
+    @Benchmark
+    public void tableModelLoad(Dataset data) throws Exception {
+        CompletableFuture<Void> firstPage = new CompletableFuture<>();
+        TableModelListener listener = e -> {
+            if (e.getFirstRow() == 0 && e.getLastRow() != Integer.MAX_VALUE) firstPage.complete(null);
+        };
+        model.addTableModelListener(listener);
+        try {
+            model.load(data.setId).join();
+            SwingUtilities.invokeAndWait(() -> {
+                for (int row = 0; row < Math.min(20, model.getRowCount()); row++) model.getValueAt(row, 1);
+            });
+            if (model.getRowCount() > 0) firstPage.get(30, TimeUnit.SECONDS);
+        } finally {
+            model.removeTableModelListener(listener);
+        }
+    }
+
+    @Benchmark
+    public void statisticsDashboard(Dataset data, Blackhole blackhole) throws Exception {
+        blackhole.consume(data.db.getSetStatistics());
+        blackhole.consume(data.db.getPracticeStreak(today));
+        blackhole.consume(data.db.getDailyStatistics(data.setId, today - 29));
+        blackhole.consume(data.db.getHardestVokabeln(data.setId, 3, 15));
+    }
+}
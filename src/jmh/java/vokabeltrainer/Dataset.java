@@ -0,0 +1,99 @@
+package vokabeltrainer;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A throw-away database with one set of {@code size} generated pseudo-words, shared by all
+ * benchmarks of a trial. The words are deterministic for a given size, so runs stay comparable.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+    static final String[] SYLLABLES = {
+        "ka", "lo", "mi", "ter", "schu", "ban", "ri", "del", "ost", "ne", "vu", "gra", "pel", "zi", "hau", "mor"
+    };
+    private static final int GENERATE_CHUNK = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    Path dir;
+    AppConfig config;
+    DatabaseManager db;
+    CachingDatabaseManager cached;
+    AsyncDatabase async;
+    int setId;
+    int scratchSetId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("vokabeltrainer-bench");
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:sqlite:" + dir.resolve("bench.db"));
+        config = new AppConfig(properties);
+        db = new DatabaseManager(config);
+        db.initialize();
+        setId = generate(db, size);
+        scratchSetId = createSet(db, "scratch");
+        cached = new CachingDatabaseManager(config);
+        cached.initialize();
+        async = new AsyncDatabase(cached);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (async != null) async.shutdown();
+        if (cached != null) cached.close();
+        if (db != null) db.close();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    /** Fills one set with {@code size} pseudo-words and adds a few empty sets around it. */
+    private static int generate(DatabaseManager db, int size) throws SQLException {
+        int setId = createSet(db, "bench-" + size);
+        for (int s = 0; s < 20; s++) db.createSet("set-" + s);
+        Random random = new Random(size);
+        List<String[]> chunk = new ArrayList<>(GENERATE_CHUNK);
+        for (int i = 0; i < size; i++) {
+            String word = word(random);
+            chunk.add(new String[]{word + " " + Integer.toString(i, 36), word(random) + "; " + word(random)});
+            if (chunk.size() == GENERATE_CHUNK || i == size - 1) {
+                db.insertVokabelnBatch(setId, chunk, DuplicatePolicy.KEEP_BOTH, new HashSet<>());
+                chunk.clear();
+            }
+        }
+        return setId;
+    }
+
+    static int createSet(DatabaseManager db, String name) throws SQLException {
+        db.createSet(name);
+        for (VokabelSet set : db.getAllSets()) {
+            if (set.getName().equals(name)) return set.getId();
+        }
+        throw new SQLException("Set " + name + " wurde nicht angelegt");
+    }
+
+    static String word(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int n = 2 + random.nextInt(3); n > 0; n--) sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return sb.toString();
+    }
+}
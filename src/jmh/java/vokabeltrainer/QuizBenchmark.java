@@ -0,0 +1,128 @@
+package vokabeltrainer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The answer check, whole simulated quiz sessions (draw, answer, score) and the hot-path
+ * recorders behind them. Each invocation covers {@value #CHECKS} operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class QuizBenchmark {
+    private static final int CHECKS = 1_000;
+    private static final int SAMPLE_SIZE = 10_000;
+
+    private AnswerMatcher matcher;
+    private List<Vokabel> sample;
+    private Map<Integer, AnswerMatcher.PreparedAnswer[]> prepared;
+    private Map<Integer, String[]> typedById;
+    private String[][] typed;
+    private Random random;
+    private QuizSession session;
+    private LatencyHistogram histogram;
+    private AnswerLog log;
+    private int setId;
+    private int invocation;
+
+    @Setup
+    public void setUp(Dataset data) throws Exception {
+        matcher = AnswerMatcher.fromConfig(data.config);
+        sample = data.db.getVokabelPage(data.setId, 0, SAMPLE_SIZE);
+        prepared = matcher.prepareAll(sample);
+        typed = new String[sample.size()][];
+        typedById = new HashMap<>();
+        for (int i = 0; i < typed.length; i++) {
+            String translation = sample.get(i).getTranslation().split(";")[0];
+            String typo = translation.length() > 5
+                    ? translation.substring(0, 2) + translation.charAt(3) + translation.charAt(2) + translation.substring(4)
+                    : translation;
+            typed[i] = new String[]{translation, typo, "falsch"};
+            typedById.put(sample.get(i).getId(), typed[i]);
+        }
+        random = new Random(data.size);
+        session = QuizSession.of(sample, prepared, matcher, QuizSession.Direction.FORWARD, random);
+        histogram = new LatencyHistogram("bench");
+        log = new AnswerLog(data.db, data.config);
+        setId = data.setId;
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHECKS)
+    public void answerCheck(Blackhole blackhole) {
+        int base = invocation++ * CHECKS;
+        for (int n = 0; n < CHECKS; n++) {
+            int index = (base + n) % typed.length;
+            AnswerMatcher.PreparedAnswer answer = prepared.get(sample.get(index).getId())[1];
+            blackhole.consume(matcher.match(answer, typed[index][n % 3]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHECKS)
+    public void quizSessionCreate(Blackhole blackhole) {
+        for (int n = 0; n < CHECKS; n++) {
+            blackhole.consume(QuizSession.of(sample, prepared, matcher, QuizSession.Direction.MIXED, random));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHECKS)
+    public void quizSessionAnswer(Blackhole blackhole) {
+        for (int n = 0; n < CHECKS; n++) {
+            if (!session.next()) {
+                session = QuizSession.of(sample, prepared, matcher, QuizSession.Direction.FORWARD, random);
+                session.next();
+            }
+            blackhole.consume(session.answer(typedById.get(session.getCurrent().getId())[n % 3]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHECKS)
+    public void latencyHistogramRecord() {
+        for (int n = 0; n < CHECKS; n++) histogram.record(n * 997L);
+    }
+
+    /**
+     * What logging an answer costs the quiz. Appends never wait; once max_unflushed events are
+     * pending they are dropped, so this is the hot path only. AnswerLogTest covers the sustained
+     * rate the writer commits.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CHECKS)
+    public void answerLogAppend() {
+        AnswerMatcher.Verdict[] verdicts = AnswerMatcher.Verdict.values();
+        long now = System.currentTimeMillis();
+        long sessionId = invocation++;
+        for (int n = 0; n < CHECKS; n++) {
+            log.append(new AnswerEvent(sessionId, n + 1, setId, (n & 1) == 0, verdicts[n % verdicts.length], n % 5000, now));
+        }
+    }
+}
@@ -0,0 +1,6709 @@
+package vokabeltrainer;
+
+import java.awt.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.*;
+
+/**
+ * 🚀 Vokabeltrainer Pro - Modern UI Edition
+ * Grok-Style Dark Theme
+ */
+public class Vokabeltrainer {
+    // Modern Color Scheme
+    public static final Color BG_DARK = new Color(15, 23, 42);
+    public static final Color BG_DARKER = new Color(8, 14, 28);
+    public static final Color BG_CARD = new Color(30, 41, 59);
+    public static final Color ACCENT_BLUE = new Color(59, 130, 246);
+    public static final Color ACCENT_PURPLE = new Color(147, 51, 234);
+    public static final Color ACCENT_GREEN = new Color(34, 197, 94);
+    public static final Color ACCENT_RED = new Color(239, 68, 68);
+    public static final Color ACCENT_ORANGE = new Color(251, 146, 60);
+    public static final Color TEXT_PRIMARY = new Color(248, 250, 252);
+    public static final Color TEXT_SECONDARY = new Color(148, 163, 184);
+    public static final Color BORDER_COLOR = new Color(51, 65, 85);
+    
+    public static void main(String[] args) throws Exception {
+        args = FlightRecording.startIfRequested(args);
+        if (args.length > 0 && args[0].equals("--server")) {
+            System.setProperty("java.awt.headless", "true");
+            VokabelServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && (args[0].equals("--backup") || args[0].startsWith("--restore="))) {
+            System.setProperty("java.awt.headless", "true");
+            BackupManager.main(args);
+            System.exit(0);
+        }
+        if (args.length > 0 && args[0].equals("--loadtest")) {
+            System.setProperty("java.awt.headless", "true");
+            VokabelLoadTest.main(Arrays.copyOfRange(args, 1, args.length));
+            System.exit(0);
+        }
+
+        StartupTrace trace = StartupTrace.fromArgs(args);
+        trace.mark("main");
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        
+        SwingUtilities.invokeLater(() -> {
+            VokabeltrainerApp app = new VokabeltrainerApp(trace);
+            app.setVisible(true);
+            trace.mark("frame");
+        });
+    }
+    
+    public static JButton createModernButton(String text, Color bgColor) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        button.setForeground(Color.WHITE);
+        button.setBackground(bgColor);
+        button.setFocusPainted(false);
+        button.setBorderPainted(false);
+        button.setContentAreaFilled(true);
+        button.setOpaque(true);
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        button.setPreferredSize(new Dimension(Math.max(button.getPreferredSize().width + 25, 120), 40));
+        button.setBorder(BorderFactory.createEmptyBorder(8, 20, 8, 20));
+        
+        button.addMouseListener(new java.awt.event.MouseAdapter() {
+            Color original = bgColor;
+            @Override
+            public void mouseEntered(java.awt.event.MouseEvent evt) {
+                button.setBackground(bgColor.brighter());
+            }
+            @Override
+            public void mouseExited(java.awt.event.MouseEvent evt) {
+                button.setBackground(original);
+            }
+        });
+        
+        return button;
+    }
+    
+    public static JTextField createModernTextField() {
+        JTextField field = new JTextField();
+        field.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+        field.setForeground(TEXT_PRIMARY);
+        field.setBackground(BG_DARKER);
+        field.setCaretColor(ACCENT_BLUE);
+        field.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER_COLOR, 2),
+            BorderFactory.createEmptyBorder(10, 15, 10, 15)
+        ));
+        return field;
+    }
+    
+    public static <T> JComboBox<T> createModernComboBox() {
+        JComboBox<T> combo = new JComboBox<>();
+        combo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        combo.setForeground(TEXT_PRIMARY);
+        combo.setBackground(BG_CARD);
+        combo.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER_COLOR, 2),
+            BorderFactory.createEmptyBorder(5, 10, 5, 10)
+        ));
+        return combo;
+    }
+    
+    public static JLabel createLabel(String text, int fontSize, Color color) {
+        JLabel label = new JLabel(text);
+        label.setFont(new Font("Segoe UI", Font.PLAIN, fontSize));
+        label.setForeground(color);
+        return label;
+    }
+}
+
+class VokabeltrainerApp extends JFrame {
+    private static final LatencyHistogram PANEL_SWITCH_TIME = Metrics.histogram("ui.panel_switch");
+    private final AppConfig config;
+    private final StartupTrace startupTrace;
+    private CardLayout cardLayout;
+    private JPanel mainPanel;
+    private ManageSetPanel manageSetPanel;
+    // Built on first use, see quizPanel() and statisticsPanel()
+    private QuizPanel quizPanel;
+    private StatisticsPanel statisticsPanel;
+    private DatabaseManager dbManager;
+    private AsyncDatabase asyncDb;
+    private AnswerLog answerLog;
+    private BackupManager backups;
+
+    public VokabeltrainerApp() {
+        this(StartupTrace.OFF);
+    }
+
+    /**
+     * Shows the frame without waiting for the database: it is opened and migrated in the
+     * background, and the set list fills in once it is ready.
+     */
+    VokabeltrainerApp(StartupTrace startupTrace) {
+        this.startupTrace = startupTrace;
+        config = AppConfig.load();
+        Metrics.installInBackground(config);
+        dbManager = new CachingDatabaseManager(config);
+        dbManager.setUndoJournal(new UndoJournal(config.getLong("undo.max_bytes", UndoJournal.DEFAULT_MAX_BYTES)));
+        asyncDb = new AsyncDatabase(dbManager);
+        backups = new BackupManager(dbManager, config);
+        // A failure reaches the user through the set list, which fails with the same error
+        asyncDb.initializeInBackground().whenComplete((ignored, error) -> {
+            if (error != null) error.printStackTrace();
+            startupTrace.mark("db-ready");
+        }).thenRun(backups::start);
+        answerLog = new AnswerLog(dbManager, config);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            backups.close();
+            answerLog.close();
+            asyncDb.shutdown();
+        }, "Vokabeltrainer-Shutdown"));
+
+        setTitle("🚀 Vokabeltrainer Pro");
+        setSize(1100, 750);
+        // Closed by the window listener below, once pending edits are saved
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        setLocationRelativeTo(null);
+        getContentPane().setBackground(Vokabeltrainer.BG_DARK);
+
+        cardLayout = new CardLayout();
+        mainPanel = new JPanel(cardLayout);
+        mainPanel.setBackground(Vokabeltrainer.BG_DARK);
+
+        manageSetPanel = new ManageSetPanel(asyncDb,
+                new VokabelEditQueue(asyncDb, config.getInt("edit.idle_millis", VokabelEditQueue.DEFAULT_IDLE_MILLIS)),
+                backups, this);
+        mainPanel.add(manageSetPanel, "MANAGE");
+
+        add(mainPanel);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                // The EDT stays free while the writer lane drains; exits after the save, or after 10 s
+                CompletableFuture<Integer> saved = manageSetPanel.flushEdits();
+                setVisible(false);
+                saved.orTimeout(10, TimeUnit.SECONDS).whenCompleteAsync((count, error) -> {
+                    if (error != null) error.printStackTrace();
+                    dispose();
+                    System.exit(0);
+                }, AsyncDatabase.EDT);
+            }
+        });
+        manageSetPanel.refreshSets().whenComplete((count, error) -> startupTrace.interactive());
+        // Queued behind the initial load; reclaims space left by earlier deletes
+        asyncDb.compactInBackground();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        startupTrace.mark("first-paint");
+    }
+
+    private QuizPanel quizPanel() {
+        if (quizPanel == null) {
+            quizPanel = new QuizPanel(asyncDb, AnswerMatcher.fromConfig(config), answerLog, this);
+            mainPanel.add(quizPanel, "QUIZ");
+        }
+        return quizPanel;
+    }
+
+    private StatisticsPanel statisticsPanel() {
+        if (statisticsPanel == null) {
+            statisticsPanel = new StatisticsPanel(asyncDb, answerLog, this);
+            mainPanel.add(statisticsPanel, "STATS");
+        }
+        return statisticsPanel;
+    }
+
+    public void showManagePanel() {
+        long start = System.nanoTime();
+        UiEvent event = UiEvent.begin("showManagePanel");
+        manageSetPanel.refreshSets();
+        showCard("MANAGE", start, event);
+    }
+
+    public void showQuizPanel() {
+        long start = System.nanoTime();
+        UiEvent event = UiEvent.begin("showQuizPanel");
+        // Saves pending table edits, so a quiz started next asks the corrected words
+        manageSetPanel.flushEdits();
+        quizPanel().refreshSets();
+        showCard("QUIZ", start, event);
+    }
+
+    public void showStatisticsPanel() {
+        long start = System.nanoTime();
+        UiEvent event = UiEvent.begin("showStatisticsPanel");
+        manageSetPanel.flushEdits();
+        statisticsPanel().refresh();
+        showCard("STATS", start, event);
+    }
+
+    private void showCard(String card, long start, UiEvent event) {
+        cardLayout.show(mainPanel, card);
+        // Runs after the events queued by the switch (layout, repaint) have been handled
+        SwingUtilities.invokeLater(() -> {
+            PANEL_SWITCH_TIME.recordSince(start);
+            event.finish(card, -1);
+        });
+    }
+}
+
+/**
+ * Startup milestones for {@code --startup-trace}, printed in milliseconds since the JVM process
+ * started (so JVM boot and class loading count too). With {@code --startup-trace=exit} the app
+ * quits once it is interactive, which lets cds.bat time repeated starts and train the CDS archive.
+ */
+class StartupTrace {
+    static final StartupTrace OFF = new StartupTrace(false, false);
+
+    private final boolean enabled;
+    private final boolean exitWhenInteractive;
+    private final long originNanos;
+    private final Set<String> reached = ConcurrentHashMap.newKeySet();
+
+    private StartupTrace(boolean enabled, boolean exitWhenInteractive) {
+        this.enabled = enabled;
+        this.exitWhenInteractive = exitWhenInteractive;
+        long sinceProcessStart = !enabled ? 0 : ProcessHandle.current().info().startInstant()
+                .map(start -> java.time.Duration.between(start, java.time.Instant.now()).toNanos())
+                .orElse(0L);
+        this.originNanos = System.nanoTime() - Math.max(0, sinceProcessStart);
+    }
+
+    static StartupTrace fromArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--startup-trace")) return new StartupTrace(true, false);
+            if (arg.equals("--startup-trace=exit")) return new StartupTrace(true, true);
+        }
+        return OFF;
+    }
+
+    /** Prints the milestone the first time it is reached. */
+    void mark(String milestone) {
+        if (!enabled || !reached.add(milestone)) return;
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - originNanos);
+        System.out.printf("[startup] %-12s %6d ms%n", milestone, millis);
+    }
+
+    /** The set list and the first set's table are loaded, so the user can work. */
+    void interactive() {
+        mark("interactive");
+        if (enabled && exitWhenInteractive) System.exit(0);
+    }
+}
+
+/**
+ * Thread-safe data access. Reads borrow one of a small pool of read-only connections, so several
+ * can run at once under WAL. All writes go through a single writer connection; a fair lock queues
+ * writers in arrival order. Every connection keeps its own prepared-statement cache.
+ */
+class DatabaseManager {
+    private static final String DB_URL = "jdbc:sqlite:vokabeltrainer.db";
+    private static final int STREAM_FETCH_SIZE = 10_000;
+    // Only matter without WAL, where a writer can hold the database longer than a backup step
+    private static final int BACKUP_BUSY_SLEEP_MILLIS = 100, BACKUP_BUSY_RETRIES = 50;
+    private static final LatencyHistogram READ_TIME = Metrics.histogram("db.read");
+    private static final LatencyHistogram WRITE_TIME = Metrics.histogram("db.write");
+    private final AppConfig config;
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+    private PooledConnection writer;
+    private final BlockingQueue<PooledConnection> readers = new LinkedBlockingQueue<>();
+    private final List<PooledConnection> allReaders = new ArrayList<>();
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong writeCount = new AtomicLong();
+    private volatile UndoJournal journal;
+
+    interface VokabelRowHandler {
+        void row(int setId, String setName, int id, String original, String translation) throws IOException;
+    }
+
+    interface SqlWork<T> {
+        T run(PooledConnection c) throws SQLException;
+    }
+
+    /**
+     * Told about single-row changes once they are committed, on the writing thread and in commit
+     * order, so it must not block. Bulk writes (import, deduplication, deleting a set) are not
+     * reported row by row; their callers reload instead.
+     */
+    interface ChangeListener {
+        void vokabelnChanged(List<VokabelChange> changes);
+    }
+
+    /** A JDBC connection plus the statements prepared on it, held for the connection's lifetime. */
+    static class PooledConnection {
+        final Connection conn;
+        private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+        // Only set while a recorded DatabaseEvent is open: the SQL prepared during the operation
+        StringBuilder sqlTrace;
+        // Writer only: changes of the running write, announced after it committed
+        final List<VokabelChange> changes = new ArrayList<>();
+        // Writer only: run under the write lock once the running write committed
+        final List<Runnable> afterCommit = new ArrayList<>();
+
+        PooledConnection(Connection conn) {
+            this.conn = conn;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            if (sqlTrace != null && sqlTrace.length() < DatabaseEvent.MAX_SQL_LENGTH && sqlTrace.indexOf(sql) < 0) {
+                if (sqlTrace.length() > 0) sqlTrace.append(";\n");
+                sqlTrace.append(sql);
+            }
+            PreparedStatement pstmt = statementCache.get(sql);
+            if (pstmt == null || pstmt.isClosed()) {
+                pstmt = conn.prepareStatement(sql);
+                statementCache.put(sql, pstmt);
+            } else {
+                pstmt.clearParameters();
+            }
+            return pstmt;
+        }
+
+        void closeStatements() {
+            for (PreparedStatement pstmt : statementCache.values()) {
+                try {
+                    pstmt.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+            statementCache.clear();
+        }
+
+        void close() {
+            closeStatements();
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public DatabaseManager() {
+        this(AppConfig.load());
+    }
+
+    public DatabaseManager(AppConfig config) {
+        this.config = config;
+    }
+
+    /** Opens the connections and migrates the schema; on failure nothing is left open. */
+    public void initialize() throws SQLException {
+        Connection conn = null;
+        try {
+            Class.forName("org.sqlite.JDBC");
+            String url = config.getString("db.url", DB_URL);
+            conn = DriverManager.getConnection(url);
+            try (Statement stmt = conn.createStatement()) {
+                // Only takes effect on a new, empty database (so before WAL is switched on);
+                // older files are converted on request by enableIncrementalVacuum()
+                stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+                stmt.execute("PRAGMA foreign_keys=ON");
+            }
+            applyTuning(conn, true);
+            DatabaseEvent event = new DatabaseEvent();
+            event.begin();
+            SchemaMigrations.migrate(conn);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "migrate";
+                event.write = true;
+                event.rowCount = SchemaMigrations.latestVersion();
+                event.commit();
+            }
+            writer = new PooledConnection(conn);
+
+            // An in-memory database only exists on the writer connection
+            int readConnections = url.contains(":memory:") ? 0 : config.getInt("db.read_connections", 4);
+            for (int i = 0; i < readConnections; i++) {
+                Connection readConn = DriverManager.getConnection(url);
+                applyTuning(readConn, false);
+                try (Statement stmt = readConn.createStatement()) {
+                    stmt.execute("PRAGMA query_only=ON");
+                }
+                PooledConnection reader = new PooledConnection(readConn);
+                allReaders.add(reader);
+                readers.add(reader);
+            }
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite-Treiber nicht gefunden, fehlt sqlite-jdbc.jar im Klassenpfad?", e);
+        } catch (SQLException | RuntimeException e) {
+            if (writer != null) {
+                close();
+                writer = null;
+            } else if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /** Connection PRAGMAs, overridable via {@code db.*} keys in vokabeltrainer.properties. */
+    private void applyTuning(Connection conn, boolean writerConnection) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (writerConnection) {
+                // Persistent for the database file, only needs to be set once
+                stmt.execute("PRAGMA journal_mode=" + config.getKeyword("db.journal_mode", "WAL"));
+            }
+            stmt.execute("PRAGMA synchronous=" + config.getKeyword("db.synchronous", "NORMAL"));
+            stmt.execute("PRAGMA mmap_size=" + config.getLong("db.mmap_size", 256L * 1024 * 1024));
+            stmt.execute("PRAGMA cache_size=" + config.getLong("db.cache_size", -64 * 1024));
+            stmt.execute("PRAGMA temp_store=" + config.getKeyword("db.temp_store", "MEMORY"));
+            stmt.execute("PRAGMA busy_timeout=" + config.getLong("db.busy_timeout", 5000));
+        }
+    }
+
+    /** Runs {@code work} on a pooled read connection (or the writer if there is no pool). */
+    private <T> T read(String operation, SqlWork<T> work) throws SQLException {
+        if (allReaders.isEmpty()) return write(operation, work);
+        PooledConnection reader;
+        try {
+            reader = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Unterbrochen beim Warten auf eine Datenbankverbindung", e);
+        }
+        long start = System.nanoTime();
+        DatabaseEvent event = DatabaseEvent.begin(operation, reader, false);
+        T result = null;
+        try {
+            return result = work.run(reader);
+        } finally {
+            DatabaseEvent.end(event, reader, result);
+            readers.add(reader);
+            READ_TIME.recordSince(start);
+        }
+    }
+
+    /** Runs {@code work} on the writer connection, queued behind all earlier writers. */
+    private <T> T write(String operation, SqlWork<T> work) throws SQLException {
+        writeLock.lock();
+        if (writer == null) {
+            writeLock.unlock();
+            throw new SQLException("Die Datenbank ist nicht geöffnet");
+        }
+        long start = System.nanoTime();
+        // Begun after the lock, so the event shows the database work and not the queueing
+        DatabaseEvent event = DatabaseEvent.begin(operation, writer, true);
+        T result = null;
+        try {
+            result = work.run(writer);
+            writeCount.incrementAndGet();
+            // Still under the lock, so listeners see changes in commit order
+            fireChanges(writer.changes);
+            for (Runnable action : writer.afterCommit) action.run();
+            return result;
+        } finally {
+            DatabaseEvent.end(event, writer, result);
+            writer.changes.clear();
+            writer.afterCommit.clear();
+            writeLock.unlock();
+            WRITE_TIME.recordSince(start);
+        }
+    }
+
+    /** Like {@link #write} but commits {@code work} as one transaction, or rolls it back. */
+    private <T> T transaction(String operation, SqlWork<T> work) throws SQLException {
+        return write(operation, c -> {
+            c.conn.setAutoCommit(false);
+            try {
+                T result = work.run(c);
+                c.conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                c.conn.rollback();
+                throw e;
+            } finally {
+                c.conn.setAutoCommit(true);
+            }
+        });
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /** Writes that went through this manager so far; unchanged means the data is unchanged. */
+    public long getWriteCount() { return writeCount.get(); }
+
+    /** Journals the single-row and set writes from now on, so they can be undone. */
+    public void setUndoJournal(UndoJournal journal) {
+        this.journal = journal;
+    }
+
+    public UndoJournal getUndoJournal() { return journal; }
+
+    /** How large a pre-image the running write may capture; 0 without a journal. */
+    private long journalBudget() {
+        UndoJournal current = journal;
+        return current != null ? current.getMaxBytes() : 0;
+    }
+
+    private void recordUndo(PooledConnection c, String label, UndoJournal.Operation inverse) {
+        UndoJournal current = journal;
+        if (current != null) c.afterCommit.add(() -> current.record(label, inverse));
+    }
+
+    /** Reverts the newest journaled write; returns its entry, or {@code null} if there is none. */
+    public UndoJournal.Entry undo() throws SQLException {
+        return replay(true);
+    }
+
+    /** Repeats the newest undone write; returns its entry, or {@code null} if there is none. */
+    public UndoJournal.Entry redo() throws SQLException {
+        return replay(false);
+    }
+
+    private UndoJournal.Entry replay(boolean undo) throws SQLException {
+        UndoJournal current = journal;
+        if (current == null) return null;
+        return transaction(undo ? "undo" : "redo", c -> {
+            UndoJournal.Entry entry = current.peek(undo);
+            if (entry == null) return null;
+            UndoJournal.Operation inverse;
+            try {
+                inverse = entry.operation.apply(c, current.getMaxBytes());
+            } catch (SQLException e) {
+                if (UndoJournal.isPermanent(e)) {
+                    current.discard(entry, undo);
+                    throw e;
+                }
+                // Busy, locked or I/O trouble: the entry stays and the next click tries again
+                throw new SQLException("Der Schritt konnte gerade nicht ausgeführt werden und bleibt erhalten: "
+                        + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            } catch (RuntimeException e) {
+                // A snapshot that cannot be read back fails the same way every time
+                current.discard(entry, undo);
+                throw e;
+            }
+            c.afterCommit.add(() -> current.replayed(entry, inverse, undo));
+            return entry;
+        });
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void fireChanges(List<VokabelChange> changes) {
+        if (changes.isEmpty()) return;
+        List<VokabelChange> committed = List.copyOf(changes);
+        for (ChangeListener listener : changeListeners) {
+            try {
+                listener.vokabelnChanged(committed);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void close() {
+        writeLock.lock();
+        try {
+            for (PooledConnection reader : allReaders) reader.close();
+            allReaders.clear();
+            readers.clear();
+            if (writer != null) writer.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void createSet(String name) throws SQLException {
+        write("createSet", c -> {
+            PreparedStatement pstmt = c.prepare("INSERT INTO vokabel_sets (name) VALUES (?)");
+            pstmt.setString(1, name);
+            int count = pstmt.executeUpdate();
+            recordUndo(c, "Set \"" + name + "\" anlegen", new UndoJournal.RemoveRows(lastInsertId(c), null));
+            return count;
+        });
+    }
+
+    public List<VokabelSet> getAllSets() {
+        try {
+            return read("getAllSets", c -> {
+                List<VokabelSet> sets = new ArrayList<>();
+                try (ResultSet rs = c.prepare("SELECT id, name FROM vokabel_sets ORDER BY name").executeQuery()) {
+                    while (rs.next()) {
+                        sets.add(new VokabelSet(rs.getInt("id"), rs.getString("name")));
+                    }
+                }
+                return sets;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /** Removes a set and all of its vokabeln in one transaction. */
+    public void deleteSet(int setId) throws SQLException {
+        transaction("deleteSet", c -> {
+            // Without a journal nothing is captured and this is two plain deletes
+            UndoJournal.RestoreRows inverse = new UndoJournal.RemoveRows(setId, null).apply(c, journalBudget());
+            recordUndo(c, "Set " + (inverse != null ? "\"" + inverse.getSnapshot().setName + "\" " : "") + "löschen", inverse);
+            return inverse;
+        });
+    }
+
+    /**
+     * Returns up to {@code maxPages} free pages to the file system and reports how many free pages
+     * are left. Databases created without incremental auto-vacuum are left alone (0), see
+     * {@link #enableIncrementalVacuum()}.
+     */
+    public int compact(int maxPages) throws SQLException {
+        return write("compact", c -> {
+            try (Statement stmt = c.conn.createStatement()) {
+                if (pragmaInt(stmt, "auto_vacuum") != 2) return 0;
+                stmt.execute("PRAGMA incremental_vacuum(" + Math.max(1, maxPages) + ")");
+                return pragmaInt(stmt, "freelist_count");
+            }
+        });
+    }
+
+    /**
+     * Converts a database created without incremental auto-vacuum, so that {@link #compact} can
+     * work on it. This is a full VACUUM that rewrites the whole file, so it only runs when the user
+     * asks for it. Returns false if the database was already converted.
+     */
+    public boolean enableIncrementalVacuum() throws SQLException {
+        return write("enableIncrementalVacuum", c -> {
+            try (Statement stmt = c.conn.createStatement()) {
+                if (pragmaInt(stmt, "auto_vacuum") == 2) return false;
+                // SQLite refuses to VACUUM while the cached statements are open; they are prepared again on use
+                c.closeStatements();
+                stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+                stmt.execute("VACUUM");
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Copies the database into {@code target} with SQLite's online backup API, {@code pagesPerStep}
+     * pages at a time. The copy runs on a connection of its own inside one read transaction: it is
+     * a consistent snapshot that never restarts, and under WAL writers keep committing meanwhile.
+     */
+    public void backupTo(Path target, int pagesPerStep, BackupManager.ProgressListener listener) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(config.getString("db.url", DB_URL))) {
+            PooledConnection source = new PooledConnection(conn);
+            DatabaseEvent event = DatabaseEvent.begin("backup", source, false);
+            int pages = 0;
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA query_only=ON");
+                // The first read starts the transaction, so every step copies the same snapshot
+                pages = pragmaInt(stmt, "page_count");
+                int rc = ((org.sqlite.SQLiteConnection) conn).getDatabase().backup("main", target.toString(),
+                        progressObserver(listener), BACKUP_BUSY_SLEEP_MILLIS, BACKUP_BUSY_RETRIES, pagesPerStep);
+                if (rc != 0) throw new SQLException("Sicherung fehlgeschlagen (SQLite-Fehler " + rc + ")");
+            } finally {
+                conn.rollback();
+                DatabaseEvent.end(event, source, pages);
+            }
+        }
+    }
+
+    /**
+     * Replaces the whole database with the snapshot in {@code source}, which the caller has checked
+     * (the copy is page for page, so checking again afterwards would only hold up writers longer),
+     * then migrates it to the current schema. Writers wait until it is done, readers see the old
+     * data until then. The undo history refers to replaced rows and is dropped.
+     */
+    public void restoreFrom(Path source, int pagesPerStep, BackupManager.ProgressListener listener) throws SQLException {
+        write("restore", c -> {
+            int rc = ((org.sqlite.SQLiteConnection) c.conn).getDatabase().restore("main", source.toString(),
+                    progressObserver(listener), BACKUP_BUSY_SLEEP_MILLIS, BACKUP_BUSY_RETRIES, pagesPerStep);
+            if (rc != 0) throw new SQLException("Wiederherstellen fehlgeschlagen (SQLite-Fehler " + rc + ")");
+            SchemaMigrations.migrate(c.conn);
+            UndoJournal current = journal;
+            if (current != null) c.afterCommit.add(current::clear);
+            return null;
+        });
+    }
+
+    private static org.sqlite.core.DB.ProgressObserver progressObserver(BackupManager.ProgressListener listener) {
+        return listener == null ? null : (remaining, total) -> listener.progress(total - remaining, total);
+    }
+
+    private static int pragmaInt(Statement stmt, String pragma) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static final String INSERT_VOKABEL =
+            "INSERT INTO vokabeln (set_id, original, translation, norm_key) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    public DuplicatePolicy getDuplicatePolicy() {
+        return DuplicatePolicy.fromConfig(config);
+    }
+
+    /**
+     * Adds one vokabel, applying the configured duplicate policy. Returns the new row's id,
+     * or -1 if the vokabel was a duplicate that got skipped or merged into an existing row.
+     */
+    public int addVokabel(int setId, String original, String translation) throws SQLException {
+        DuplicateReport report = insertVokabelnBatch(setId, Collections.singletonList(new String[]{original, translation}),
+                getDuplicatePolicy(), null);
+        return report.getLastInsertedId();
+    }
+
+    /**
+     * Inserts all rows ({original, translation}) in a single transaction using JDBC batching.
+     * {@code knownKeys} holds the duplicate keys already present in the set and gets this batch's
+     * keys once it is committed, so a caller inserting many chunks only loads it once; pass
+     * {@code null} to load it here. Originals whose key is empty (only punctuation, say) are
+     * never duplicates. Rows the unique key index turns away anyway count as skipped.
+     */
+    public DuplicateReport insertVokabelnBatch(int setId, List<String[]> rows, DuplicatePolicy policy,
+                                               Set<String> knownKeys) throws SQLException {
+        return transaction("insertVokabelnBatch", c -> {
+            Set<String> keys = knownKeys != null ? knownKeys : loadDuplicateKeys(c, setId);
+            Set<String> added = new HashSet<>();
+            DuplicateReport report = new DuplicateReport();
+            Map<String, List<String>> merges = new LinkedHashMap<>();
+            List<String[]> batched = new ArrayList<>(rows.size());
+            PreparedStatement pstmt = c.prepare(INSERT_VOKABEL);
+            try {
+                for (String[] row : rows) {
+                    String key = DuplicatePolicy.storedKey(row[0]);
+                    boolean duplicate = key != null && (keys.contains(key) || !added.add(key));
+                    if (duplicate && policy == DuplicatePolicy.SKIP) {
+                        report.skipped(row[0], row[1]);
+                        continue;
+                    }
+                    if (duplicate && policy == DuplicatePolicy.MERGE) {
+                        merges.computeIfAbsent(key, k -> new ArrayList<>()).add(row[1]);
+                        report.merged(row[0], row[1]);
+                        continue;
+                    }
+                    if (duplicate) report.keptBoth(row[0], row[1]);
+                    pstmt.setInt(1, setId);
+                    pstmt.setString(2, row[0]);
+                    pstmt.setString(3, row[1]);
+                    pstmt.setString(4, duplicate ? null : key);
+                    pstmt.addBatch();
+                    batched.add(row);
+                }
+                int[] counts = pstmt.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) report.inserted();
+                    else report.skipped(batched.get(i)[0], batched.get(i)[1]);
+                }
+            } catch (SQLException e) {
+                pstmt.clearBatch();
+                throw e;
+            }
+            // Only committed keys: after a rollback the caller's next chunk must not see them
+            if (knownKeys != null) c.afterCommit.add(() -> knownKeys.addAll(added));
+            // Single rows (added by hand) are reported as changes; bulk inserts are not, see ChangeListener
+            boolean single = rows.size() == 1;
+            String label = single ? "Vokabel \"" + rows.get(0)[0] + "\" hinzufügen" : null;
+            if (single && report.getInserted() == 1) {
+                int id = lastInsertId(c);
+                report.setLastInsertedId(id);
+                c.changes.add(VokabelChange.inserted(setId, new Vokabel(id, rows.get(0)[0], rows.get(0)[1])));
+                recordUndo(c, label, new UndoJournal.RemoveRows(setId, new int[]{id}));
+            }
+            UndoJournal.UpdateRows beforeMerge = null;
+            if (single && !merges.isEmpty() && journalBudget() > 0) {
+                int mergedId = idOfKey(c, setId, merges.keySet().iterator().next());
+                if (mergedId >= 0) beforeMerge = UndoJournal.UpdateRows.capture(c, List.of(mergedId), journalBudget());
+            }
+            for (Map.Entry<String, List<String>> merge : merges.entrySet()) {
+                Vokabel merged = mergeTranslations(c, setId, merge.getKey(), merge.getValue());
+                if (single && merged != null) {
+                    c.changes.add(VokabelChange.updated(setId, merged));
+                    if (beforeMerge != null) recordUndo(c, label, beforeMerge);
+                }
+            }
+            return report;
+        });
+    }
+
+    /** The duplicate keys of all vokabeln currently in a set. */
+    public Set<String> loadDuplicateKeys(int setId) throws SQLException {
+        return read("loadDuplicateKeys", c -> loadDuplicateKeys(c, setId));
+    }
+
+    static Set<String> loadDuplicateKeys(PooledConnection c, int setId) throws SQLException {
+        PreparedStatement pstmt = c.prepare("SELECT norm_key FROM vokabeln WHERE set_id = ? AND norm_key IS NOT NULL");
+        pstmt.setInt(1, setId);
+        Set<String> keys = new HashSet<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) keys.add(rs.getString(1));
+        }
+        return keys;
+    }
+
+    private static int lastInsertId(PooledConnection c) throws SQLException {
+        try (ResultSet rs = c.prepare("SELECT last_insert_rowid()").executeQuery()) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    /** Appends {@code additions} to the translation of the row with {@code key}; returns the row if it changed. */
+    private static Vokabel mergeTranslations(PooledConnection c, int setId, String key, List<String> additions)
+            throws SQLException {
+        PreparedStatement select = c.prepare(
+                "SELECT id, original, translation FROM vokabeln WHERE set_id = ? AND norm_key = ?");
+        select.setInt(1, setId);
+        select.setString(2, key);
+        int id;
+        String original, translation;
+        try (ResultSet rs = select.executeQuery()) {
+            if (!rs.next()) return null;
+            id = rs.getInt(1);
+            original = rs.getString(2);
+            translation = rs.getString(3);
+        }
+        String merged = DuplicatePolicy.mergeTranslations(translation, additions);
+        if (merged.equals(translation)) return null;
+        PreparedStatement update = c.prepare("UPDATE vokabeln SET translation = ? WHERE id = ?");
+        update.setString(1, merged);
+        update.setInt(2, id);
+        update.executeUpdate();
+        return new Vokabel(id, original, merged);
+    }
+
+    /**
+     * Collapses duplicates that are already stored in a set (rows kept with "keep both" or from
+     * before duplicate detection) in one pass over the set, using an in-memory map of keys.
+     * Rows whose key is empty are left alone. With {@link DuplicatePolicy#KEEP_BOTH} nothing is
+     * removed and only the report is produced.
+     */
+    public DuplicateReport deduplicateSet(int setId, DuplicatePolicy policy) throws SQLException {
+        return transaction("deduplicateSet", c -> {
+            DuplicateReport report = new DuplicateReport();
+            Map<String, Integer> firstIds = new HashMap<>();
+            Map<Integer, List<String>> merges = new LinkedHashMap<>();
+            Map<Integer, String> translations = new HashMap<>();
+            Map<Integer, String> missingKeys = new LinkedHashMap<>();
+            List<Integer> deletes = new ArrayList<>();
+            PreparedStatement select = c.prepare(
+                    "SELECT id, original, translation, norm_key FROM vokabeln WHERE set_id = ? ORDER BY id");
+            select.setInt(1, setId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    String original = rs.getString(2), translation = rs.getString(3);
+                    String key = DuplicatePolicy.storedKey(original);
+                    if (key == null) {
+                        // Stored by older versions; an empty key would make all such rows one duplicate group
+                        if (rs.getString(4) != null) missingKeys.put(id, null);
+                        continue;
+                    }
+                    Integer first = firstIds.putIfAbsent(key, id);
+                    if (first == null) {
+                        if (!key.equals(rs.getString(4))) missingKeys.put(id, key);
+                        if (policy == DuplicatePolicy.MERGE) translations.put(id, translation);
+                        continue;
+                    }
+                    if (policy == DuplicatePolicy.KEEP_BOTH) {
+                        report.keptBoth(original, translation);
+                        continue;
+                    }
+                    deletes.add(id);
+                    if (policy == DuplicatePolicy.MERGE) {
+                        merges.computeIfAbsent(first, k -> new ArrayList<>()).add(translation);
+                        report.merged(original, translation);
+                    } else {
+                        report.skipped(original, translation);
+                    }
+                }
+            }
+            if (policy == DuplicatePolicy.KEEP_BOTH) return report;
+            if (journalBudget() > 0 && (!deletes.isEmpty() || !missingKeys.isEmpty())) {
+                Set<Integer> updated = new TreeSet<>(missingKeys.keySet());
+                updated.addAll(merges.keySet());
+                int[] deletedIds = deletes.stream().mapToInt(Integer::intValue).toArray();
+                // Undo: survivors get their old keys and translations back, then the duplicates return
+                UndoJournal.RowSnapshot removed = UndoJournal.RowSnapshot.capture(c, setId, deletedIds, journalBudget());
+                recordUndo(c, "Duplikate bereinigen", UndoJournal.Composite.of(
+                        UndoJournal.UpdateRows.capture(c, updated, journalBudget()),
+                        removed != null ? new UndoJournal.RestoreRows(removed) : null));
+            }
+
+            // Delete first so the surviving rows can take over the unique keys
+            PreparedStatement delete = c.prepare("DELETE FROM vokabeln WHERE id = ?");
+            for (int id : deletes) {
+                delete.setInt(1, id);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+            PreparedStatement update = c.prepare("UPDATE vokabeln SET norm_key = ? WHERE id = ?");
+            for (Map.Entry<Integer, String> missing : missingKeys.entrySet()) {
+                update.setString(1, missing.getValue());
+                update.setInt(2, missing.getKey());
+                update.addBatch();
+            }
+            update.executeBatch();
+            PreparedStatement merge = c.prepare("UPDATE vokabeln SET translation = ? WHERE id = ?");
+            for (Map.Entry<Integer, List<String>> entry : merges.entrySet()) {
+                String translation = translations.get(entry.getKey());
+                String merged = DuplicatePolicy.mergeTranslations(translation, entry.getValue());
+                if (merged.equals(translation)) continue;
+                merge.setString(1, merged);
+                merge.setInt(2, entry.getKey());
+                merge.addBatch();
+            }
+            merge.executeBatch();
+            return report;
+        });
+    }
+
+    public List<Vokabel> getVokabelnBySet(int setId) {
+        try {
+            return read("getVokabelnBySet", c -> {
+                PreparedStatement pstmt = c.prepare(
+                        "SELECT id, original, translation FROM vokabeln WHERE set_id = ? ORDER BY id");
+                pstmt.setInt(1, setId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return readVokabeln(rs, 16);
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Streams the vokabeln of one set ({@code setId != null}) or of all sets straight from the
+     * ResultSet, ordered by set and id. Nothing is collected in memory.
+     */
+    public long streamVokabeln(Integer setId, VokabelRowHandler handler) throws SQLException, IOException {
+        String sql = "SELECT v.set_id, s.name, v.id, v.original, v.translation FROM vokabeln v " +
+                "JOIN vokabel_sets s ON s.id = v.set_id" +
+                (setId != null ? " WHERE v.set_id = ?" : "") + " ORDER BY v.set_id, v.id";
+        IOException[] failure = new IOException[1];
+        long rows = read("streamVokabeln", c -> {
+            long count = 0;
+            PreparedStatement pstmt = c.prepare(sql);
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+            if (setId != null) pstmt.setInt(1, setId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.row(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getString(4), rs.getString(5));
+                    count++;
+                }
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+            return count;
+        });
+        if (failure[0] != null) throw failure[0];
+        return rows;
+    }
+
+    public int countVokabeln(int setId) throws SQLException {
+        return read("countVokabeln", c -> {
+            PreparedStatement pstmt = c.prepare("SELECT COUNT(*) FROM vokabeln WHERE set_id = ?");
+            pstmt.setInt(1, setId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+    }
+
+    /** Keyset pagination: the next {@code limit} rows of a set whose id is greater than {@code afterId}. */
+    public List<Vokabel> getVokabelPage(int setId, int afterId, int limit) throws SQLException {
+        return read("getVokabelPage", c -> {
+            PreparedStatement pstmt = c.prepare(
+                    "SELECT id, original, translation FROM vokabeln WHERE set_id = ? AND id > ? ORDER BY id LIMIT ?");
+            pstmt.setInt(1, setId);
+            pstmt.setInt(2, afterId);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return readVokabeln(rs, limit);
+            }
+        });
+    }
+
+    /** Offset fallback for jumping into a page whose starting key is not known yet. */
+    public List<Vokabel> getVokabelPageAt(int setId, int offset, int limit) throws SQLException {
+        return read("getVokabelPageAt", c -> {
+            PreparedStatement pstmt = c.prepare(
+                    "SELECT id, original, translation FROM vokabeln WHERE set_id = ? ORDER BY id LIMIT ? OFFSET ?");
+            pstmt.setInt(1, setId);
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, offset);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return readVokabeln(rs, limit);
+            }
+        });
+    }
+
+    private static List<Vokabel> readVokabeln(ResultSet rs, int expected) throws SQLException {
+        List<Vokabel> vokabeln = new ArrayList<>(expected);
+        while (rs.next()) {
+            vokabeln.add(new Vokabel(rs.getInt(1), rs.getString(2), rs.getString(3)));
+        }
+        return vokabeln;
+    }
+
+    /**
+     * Cards of a set that are due at {@code now} (earliest first), followed by up to {@code maxNew}
+     * vokabeln that have never been reviewed.
+     */
+    public List<ReviewState> getDueReviews(int setId, long now, int maxDue, int maxNew) throws SQLException {
+        return read("getDueReviews", c -> {
+            List<ReviewState> due = new ArrayList<>();
+            PreparedStatement pstmt = c.prepare(
+                    "SELECT v.id, v.original, v.translation, r.ease, r.interval_days, r.repetitions, r.lapses, r.due_at " +
+                    "FROM vokabel_reviews r JOIN vokabeln v ON v.id = r.vokabel_id " +
+                    "WHERE r.set_id = ? AND r.due_at <= ? ORDER BY r.due_at LIMIT ?");
+            pstmt.setInt(1, setId);
+            pstmt.setLong(2, now);
+            pstmt.setInt(3, maxDue);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Vokabel v = new Vokabel(rs.getInt(1), rs.getString(2), rs.getString(3));
+                    due.add(new ReviewState(v, rs.getDouble(4), rs.getDouble(5), rs.getInt(6), rs.getInt(7), rs.getLong(8)));
+                }
+            }
+            PreparedStatement fresh = c.prepare(
+                    "SELECT v.id, v.original, v.translation FROM vokabeln v WHERE v.set_id = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM vokabel_reviews r WHERE r.vokabel_id = v.id) ORDER BY v.id LIMIT ?");
+            fresh.setInt(1, setId);
+            fresh.setInt(2, maxNew);
+            try (ResultSet rs = fresh.executeQuery()) {
+                for (Vokabel v : readVokabeln(rs, maxNew)) {
+                    due.add(ReviewState.newCard(v, now));
+                }
+            }
+            return due;
+        });
+    }
+
+    public void saveReview(int setId, ReviewState state) throws SQLException {
+        write("saveReview", c -> {
+            PreparedStatement pstmt = c.prepare(
+                    "INSERT INTO vokabel_reviews (vokabel_id, set_id, ease, interval_days, repetitions, lapses, due_at, last_review) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT(vokabel_id) DO UPDATE SET " +
+                    "ease = excluded.ease, interval_days = excluded.interval_days, repetitions = excluded.repetitions, " +
+                    "lapses = excluded.lapses, due_at = excluded.due_at, last_review = excluded.last_review");
+            pstmt.setInt(1, state.getVokabel().getId());
+            pstmt.setInt(2, setId);
+            pstmt.setDouble(3, state.getEase());
+            pstmt.setDouble(4, state.getIntervalDays());
+            pstmt.setInt(5, state.getRepetitions());
+            pstmt.setInt(6, state.getLapses());
+            pstmt.setLong(7, state.getDueAt());
+            pstmt.setLong(8, state.getLastReview());
+            return pstmt.executeUpdate();
+        });
+    }
+
+    // Rows per multi-row INSERT; SQLite sets up the insert once per statement instead of once per row
+    private static final int ANSWERS_PER_INSERT = 100;
+    private static final String INSERT_ANSWER =
+            "INSERT INTO answer_log (session_id, vokabel_id, set_id, reverse, verdict, response_ms, answered_at) VALUES ";
+    private static final String INSERT_ANSWERS =
+            INSERT_ANSWER + String.join(", ", Collections.nCopies(ANSWERS_PER_INSERT, "(?, ?, ?, ?, ?, ?, ?)"));
+
+    /** Appends a batch of answer events in one transaction. */
+    public void insertAnswerEvents(List<AnswerEvent> events) throws SQLException {
+        transaction("insertAnswerEvents", c -> {
+            int multi = events.size() - events.size() % ANSWERS_PER_INSERT;
+            insertAnswerRows(c.prepare(INSERT_ANSWERS), events.subList(0, multi), ANSWERS_PER_INSERT);
+            insertAnswerRows(c.prepare(INSERT_ANSWER + "(?, ?, ?, ?, ?, ?, ?)"), events.subList(multi, events.size()), 1);
+            // Same transaction, so the aggregates never disagree with the log
+            AnswerStatistics.apply(c, events);
+            return null;
+        });
+    }
+
+    private static void insertAnswerRows(PreparedStatement pstmt, List<AnswerEvent> events, int rowsPerStatement)
+            throws SQLException {
+        if (events.isEmpty()) return;
+        try {
+            for (int i = 0; i < events.size(); i++) {
+                AnswerEvent event = events.get(i);
+                int p = i % rowsPerStatement * 7;
+                pstmt.setLong(p + 1, event.getSessionId());
+                pstmt.setInt(p + 2, event.getVokabelId());
+                pstmt.setInt(p + 3, event.getSetId());
+                pstmt.setInt(p + 4, event.isReverse() ? 1 : 0);
+                pstmt.setString(p + 5, event.getVerdict().name());
+                pstmt.setInt(p + 6, event.getResponseMillis());
+                pstmt.setLong(p + 7, event.getAnsweredAt());
+                if (p + 7 == rowsPerStatement * 7) pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            pstmt.clearBatch();
+            throw e;
+        }
+    }
+
+    public long countAnswerEvents() throws SQLException {
+        return read("countAnswerEvents", c -> {
+            try (ResultSet rs = c.prepare("SELECT COUNT(*) FROM answer_log").executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        });
+    }
+
+    /** Aggregated statistics of every set that has been practised, most recent first. */
+    public List<SetStatistics> getSetStatistics() throws SQLException {
+        return read("getSetStatistics", c -> {
+            PreparedStatement pstmt = c.prepare(
+                    "SELECT s.id, s.name, st.attempts, st.correct, st.typos, st.total_response_ms, st.last_answered_at " +
+                    "FROM set_stats st JOIN vokabel_sets s ON s.id = st.set_id ORDER BY st.last_answered_at DESC");
+            List<SetStatistics> stats = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    stats.add(new SetStatistics(rs.getInt(1), rs.getString(2), rs.getLong(3), rs.getLong(4),
+                            rs.getLong(5), rs.getLong(6), rs.getLong(7)));
+                }
+            }
+            return stats;
+        });
+    }
+
+    /** Per-day totals from {@code fromDay} (epoch day) on, for one set or all sets ({@code null}). */
+    public List<DailyStatistics> getDailyStatistics(Integer setId, long fromDay) throws SQLException {
+        return read("getDailyStatistics", c -> {
+            PreparedStatement pstmt;
+            if (setId != null) {
+                pstmt = c.prepare("SELECT day, attempts, correct FROM daily_stats WHERE day >= ? AND set_id = ? ORDER BY day");
+                pstmt.setLong(1, fromDay);
+                pstmt.setInt(2, setId);
+            } else {
+                pstmt = c.prepare("SELECT day, SUM(attempts), SUM(correct) FROM daily_stats WHERE day >= ? GROUP BY day ORDER BY day");
+                pstmt.setLong(1, fromDay);
+            }
+            List<DailyStatistics> days = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) days.add(new DailyStatistics(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+            }
+            return days;
+        });
+    }
+
+    /** Consecutive days with at least one answer, ending today or yesterday. */
+    public int getPracticeStreak(long today) throws SQLException {
+        return read("getPracticeStreak", c -> {
+            PreparedStatement pstmt = c.prepare("SELECT DISTINCT day FROM daily_stats WHERE day <= ? ORDER BY day DESC");
+            pstmt.setLong(1, today);
+            int streak = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                long expected = today;
+                while (rs.next()) {
+                    long day = rs.getLong(1);
+                    // Not practised yet today does not break yesterday's streak
+                    if (streak == 0 && day == today - 1) expected = day;
+                    if (day != expected) break;
+                    streak++;
+                    expected--;
+                }
+            }
+            return streak;
+        });
+    }
+
+    /** The set's vokabeln with the lowest hit rate among those answered at least {@code minAttempts} times. */
+    public List<VokabelStatistics> getHardestVokabeln(int setId, int minAttempts, int limit) throws SQLException {
+        return read("getHardestVokabeln", c -> {
+            PreparedStatement pstmt = c.prepare(
+                    "SELECT v.id, v.original, v.translation, st.attempts, st.correct, st.streak, st.best_streak " +
+                    "FROM vokabel_stats st JOIN vokabeln v ON v.id = st.vokabel_id " +
+                    "WHERE st.set_id = ? AND st.attempts >= ? " +
+                    "ORDER BY CAST(st.correct AS REAL) / st.attempts, st.attempts DESC LIMIT ?");
+            pstmt.setInt(1, setId);
+            pstmt.setInt(2, minAttempts);
+            pstmt.setInt(3, limit);
+            List<VokabelStatistics> stats = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    stats.add(new VokabelStatistics(new Vokabel(rs.getInt(1), rs.getString(2), rs.getString(3)),
+                            rs.getLong(4), rs.getLong(5), rs.getInt(6), rs.getInt(7)));
+                }
+            }
+            return stats;
+        });
+    }
+
+    /**
+     * Ranked full-text search over all sets. Every word of {@code text} is used as a prefix,
+     * so results show up while the user is still typing.
+     */
+    public List<VokabelSearchResult> searchVokabeln(String text, int limit) throws SQLException {
+        StringBuilder query = new StringBuilder();
+        for (String token : text.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (query.length() > 0) query.append(' ');
+            query.append('"').append(token).append("\"*");
+        }
+        if (query.length() == 0) return new ArrayList<>();
+        return read("searchVokabeln", c -> {
+            PreparedStatement pstmt = c.prepare(
+                    "SELECT v.id, v.original, v.translation, v.set_id, s.name FROM vokabeln_fts f " +
+                    "JOIN vokabeln v ON v.id = f.rowid JOIN vokabel_sets s ON s.id = v.set_id " +
+                    "WHERE vokabeln_fts MATCH ? ORDER BY f.rank LIMIT ?");
+            pstmt.setString(1, query.toString());
+            pstmt.setInt(2, limit);
+            List<VokabelSearchResult> results = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Vokabel v = new Vokabel(rs.getInt(1), rs.getString(2), rs.getString(3));
+                    results.add(new VokabelSearchResult(v, rs.getInt(4), rs.getString(5)));
+                }
+            }
+            return results;
+        });
+    }
+
+    /** Position of a vokabel within its set in id order, i.e. its table row. */
+    public int getRowIndex(int setId, int vokabelId) throws SQLException {
+        return read("getRowIndex", c -> {
+            PreparedStatement pstmt = c.prepare("SELECT COUNT(*) FROM vokabeln WHERE set_id = ? AND id < ?");
+            pstmt.setInt(1, setId);
+            pstmt.setInt(2, vokabelId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
+    }
+
+    private static int idOfKey(PooledConnection c, int setId, String key) throws SQLException {
+        PreparedStatement pstmt = c.prepare("SELECT id FROM vokabeln WHERE set_id = ? AND norm_key = ?");
+        pstmt.setInt(1, setId);
+        pstmt.setString(2, key);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    /**
+     * Saves edited originals and translations in one transaction. An original that now collides
+     * with another row of its set is kept as a duplicate (no key), like "keep both"; the cleanup
+     * button can fold it later. Rows deleted in the meantime are skipped. Returns the rows updated.
+     */
+    public int updateVokabeln(List<Vokabel> edits) throws SQLException {
+        return transaction("updateVokabeln", c -> {
+            List<Integer> ids = new ArrayList<>(edits.size());
+            for (Vokabel edit : edits) ids.add(edit.getId());
+            recordUndo(c, edits.size() == 1 ? "Vokabel \"" + edits.get(0).getOriginal() + "\" bearbeiten"
+                    : edits.size() + " Vokabeln bearbeiten", UndoJournal.UpdateRows.capture(c, ids, journalBudget()));
+            PreparedStatement select = c.prepare("SELECT set_id FROM vokabeln WHERE id = ?");
+            PreparedStatement taken = c.prepare("SELECT 1 FROM vokabeln WHERE set_id = ? AND norm_key = ? AND id <> ?");
+            PreparedStatement update = c.prepare(
+                    "UPDATE vokabeln SET original = ?, translation = ?, norm_key = ? WHERE id = ?");
+            int updated = 0;
+            for (Vokabel edit : edits) {
+                select.setInt(1, edit.getId());
+                int setId;
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) continue;
+                    setId = rs.getInt(1);
+                }
+                String key = DuplicatePolicy.storedKey(edit.getOriginal());
+                if (key != null) {
+                    taken.setInt(1, setId);
+                    taken.setString(2, key);
+                    taken.setInt(3, edit.getId());
+                    try (ResultSet rs = taken.executeQuery()) {
+                        if (rs.next()) key = null;
+                    }
+                }
+                update.setString(1, edit.getOriginal());
+                update.setString(2, edit.getTranslation());
+                update.setString(3, key);
+                update.setInt(4, edit.getId());
+                if (update.executeUpdate() > 0) {
+                    updated++;
+                    c.changes.add(VokabelChange.updated(setId, edit));
+                }
+            }
+            return updated;
+        });
+    }
+
+    public void deleteVokabel(int vokabelId) throws SQLException {
+        write("deleteVokabel", c -> {
+            // Captured first, the review row goes with the delete; the set is filled in from it
+            UndoJournal.RowSnapshot before = UndoJournal.RowSnapshot.capture(c, -1, new int[]{vokabelId}, Long.MAX_VALUE);
+            if (before.size() == 0) return 0;
+            PreparedStatement delete = c.prepare("DELETE FROM vokabeln WHERE id = ? RETURNING set_id");
+            delete.setInt(1, vokabelId);
+            int setId;
+            try (ResultSet rs = delete.executeQuery()) {
+                if (!rs.next()) return 0;
+                setId = rs.getInt(1);
+            }
+            before = before.inSet(setId);
+            Vokabel deleted = before.vokabel(0);
+            c.changes.add(VokabelChange.deleted(setId, deleted));
+            recordUndo(c, "Vokabel \"" + deleted.getOriginal() + "\" löschen", new UndoJournal.RestoreRows(before));
+            return 1;
+        });
+    }
+}
+
+/**
+ * DatabaseManager with an in-memory cache of the set list and of whole sets, bounded by the
+ * total number of cached vokabeln (LRU). Every write invalidates exactly the entries it touches.
+ * Paged reads and counts are answered from a cached set when there is one, but never fill the cache.
+ */
+class CachingDatabaseManager extends DatabaseManager {
+    private final int maxCachedVokabeln;
+    private final LinkedHashMap<Integer, List<Vokabel>> setCache = new LinkedHashMap<>(16, 0.75f, true);
+    private List<VokabelSet> allSets;
+    private int cachedVokabeln = 0;
+    // Bumped by every write so a read racing with it does not cache stale data
+    private long writeGeneration = 0;
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), evictions = new AtomicLong();
+
+    public CachingDatabaseManager(AppConfig config) {
+        super(config);
+        this.maxCachedVokabeln = config.getInt("cache.max_vokabeln", 200_000);
+        // Registered first, so the cache is stale-free before any other listener reacts
+        addChangeListener(changes -> {
+            for (VokabelChange change : changes) invalidateSet(change.getSetId());
+        });
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total > 0 ? (double) hits.get() / total : 0;
+    }
+
+    @Override
+    public List<VokabelSet> getAllSets() {
+        long generation;
+        synchronized (this) {
+            if (allSets != null) {
+                hits.incrementAndGet();
+                return new ArrayList<>(allSets);
+            }
+            generation = writeGeneration;
+        }
+        misses.incrementAndGet();
+        List<VokabelSet> sets = super.getAllSets();
+        synchronized (this) {
+            if (generation == writeGeneration) allSets = Collections.unmodifiableList(new ArrayList<>(sets));
+        }
+        return sets;
+    }
+
+    @Override
+    public List<Vokabel> getVokabelnBySet(int setId) {
+        long generation;
+        synchronized (this) {
+            List<Vokabel> cached = setCache.get(setId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return new ArrayList<>(cached);
+            }
+            generation = writeGeneration;
+        }
+        misses.incrementAndGet();
+        List<Vokabel> vokabeln = super.getVokabelnBySet(setId);
+        synchronized (this) {
+            if (generation == writeGeneration && vokabeln.size() <= maxCachedVokabeln) {
+                List<Vokabel> previous = setCache.put(setId, Collections.unmodifiableList(new ArrayList<>(vokabeln)));
+                cachedVokabeln += vokabeln.size() - (previous != null ? previous.size() : 0);
+                evictToLimit();
+            }
+        }
+        return vokabeln;
+    }
+
+    private void evictToLimit() {
+        Iterator<List<Vokabel>> eldest = setCache.values().iterator();
+        while (cachedVokabeln > maxCachedVokabeln && eldest.hasNext()) {
+            cachedVokabeln -= eldest.next().size();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private synchronized List<Vokabel> cachedSet(int setId) {
+        List<Vokabel> cached = setCache.get(setId);
+        (cached != null ? hits : misses).incrementAndGet();
+        return cached;
+    }
+
+    @Override
+    public int countVokabeln(int setId) throws SQLException {
+        List<Vokabel> cached = cachedSet(setId);
+        return cached != null ? cached.size() : super.countVokabeln(setId);
+    }
+
+    @Override
+    public List<Vokabel> getVokabelPage(int setId, int afterId, int limit) throws SQLException {
+        List<Vokabel> cached = cachedSet(setId);
+        if (cached == null) return super.getVokabelPage(setId, afterId, limit);
+        // Cached sets are ordered by id, so the page starts at the first id above afterId
+        int low = 0, high = cached.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cached.get(mid).getId() <= afterId) low = mid + 1;
+            else high = mid;
+        }
+        return new ArrayList<>(cached.subList(low, Math.min(cached.size(), low + limit)));
+    }
+
+    @Override
+    public List<Vokabel> getVokabelPageAt(int setId, int offset, int limit) throws SQLException {
+        List<Vokabel> cached = cachedSet(setId);
+        if (cached == null) return super.getVokabelPageAt(setId, offset, limit);
+        int from = Math.min(cached.size(), offset);
+        return new ArrayList<>(cached.subList(from, Math.min(cached.size(), from + limit)));
+    }
+
+    private synchronized void invalidateSets() {
+        writeGeneration++;
+        allSets = null;
+    }
+
+    private synchronized void invalidateAll() {
+        writeGeneration++;
+        allSets = null;
+        setCache.clear();
+        cachedVokabeln = 0;
+    }
+
+    @Override
+    public void restoreFrom(Path source, int pagesPerStep, BackupManager.ProgressListener listener) throws SQLException {
+        try {
+            super.restoreFrom(source, pagesPerStep, listener);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public UndoJournal.Entry undo() throws SQLException {
+        try {
+            return super.undo();
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public UndoJournal.Entry redo() throws SQLException {
+        try {
+            return super.redo();
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    private synchronized void invalidateSet(int setId) {
+        writeGeneration++;
+        List<Vokabel> removed = setCache.remove(setId);
+        if (removed != null) cachedVokabeln -= removed.size();
+    }
+
+    @Override
+    public void createSet(String name) throws SQLException {
+        try {
+            super.createSet(name);
+        } finally {
+            invalidateSets();
+        }
+    }
+
+    @Override
+    public void deleteSet(int setId) throws SQLException {
+        try {
+            super.deleteSet(setId);
+        } finally {
+            invalidateSets();
+            invalidateSet(setId);
+        }
+    }
+
+    @Override
+    public DuplicateReport insertVokabelnBatch(int setId, List<String[]> rows, DuplicatePolicy policy,
+                                               Set<String> knownKeys) throws SQLException {
+        try {
+            return super.insertVokabelnBatch(setId, rows, policy, knownKeys);
+        } finally {
+            invalidateSet(setId);
+        }
+    }
+
+    @Override
+    public DuplicateReport deduplicateSet(int setId, DuplicatePolicy policy) throws SQLException {
+        try {
+            return super.deduplicateSet(setId, policy);
+        } finally {
+            invalidateSet(setId);
+        }
+    }
+}
+
+/**
+ * Undo/redo history of the writes made in the manage view. Each journaled write records its
+ * inverse, captured in the same transaction: removed rows as a packed pre-image (ids, texts,
+ * keys and review state in one byte array), inserted rows only by id. Replaying an entry runs it
+ * as one transaction and yields the entry for the opposite stack. Both stacks together stay
+ * below {@code undo.max_bytes}; the oldest entries are dropped first.
+ */
+class UndoJournal {
+    static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    // SQLState class 23: replaying ran into data that no longer fits, see isPermanent
+    static final String INTEGRITY_VIOLATION = "23000";
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final long maxBytes;
+    private final Deque<Entry> undoStack = new ArrayDeque<>();
+    private final Deque<Entry> redoStack = new ArrayDeque<>();
+    private long bytes;
+    private volatile Runnable listener = () -> { };
+
+    UndoJournal(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** One step as the user sees it, plus the operation that reverts it. */
+    static final class Entry {
+        final String label;
+        final Operation operation;
+
+        Entry(String label, Operation operation) {
+            this.label = label;
+            this.operation = operation;
+        }
+
+        public String getLabel() { return label; }
+
+        /** Replaying it changes the set list or more rows than the table updates one by one. */
+        public boolean isBulk() { return operation.isBulk(); }
+
+        long bytes() { return ENTRY_OVERHEAD + 2L * label.length() + operation.bytes(); }
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    /** Called on the writing thread whenever the stacks change. */
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    public synchronized String getUndoLabel() {
+        return undoStack.isEmpty() ? null : undoStack.peek().label;
+    }
+
+    public synchronized String getRedoLabel() {
+        return redoStack.isEmpty() ? null : redoStack.peek().label;
+    }
+
+    public synchronized long getBytes() { return bytes; }
+
+    /**
+     * A new write: its inverse goes on the undo stack and the redo stack is cleared. A {@code null}
+     * inverse (pre-image larger than the cap) ends the history, since older entries could no
+     * longer be undone in order.
+     */
+    void record(String label, Operation inverse) {
+        synchronized (this) {
+            clear(redoStack);
+            if (inverse == null) clear(undoStack);
+            else push(undoStack, new Entry(label, inverse));
+        }
+        listener.run();
+    }
+
+    synchronized Entry peek(boolean undo) {
+        return (undo ? undoStack : redoStack).peek();
+    }
+
+    /** After {@code entry} was replayed: it moves to the other stack, as {@code inverse}. */
+    void replayed(Entry entry, Operation inverse, boolean undo) {
+        synchronized (this) {
+            Deque<Entry> from = undo ? undoStack : redoStack, to = undo ? redoStack : undoStack;
+            if (from.peek() == entry) {
+                from.pop();
+                bytes -= entry.bytes();
+            }
+            if (inverse == null) clear(to);
+            else push(to, new Entry(entry.label, inverse));
+        }
+        listener.run();
+    }
+
+    /** Forgets the whole history, e.g. after the database was replaced by a backup. */
+    void clear() {
+        synchronized (this) {
+            clear(undoStack);
+            clear(redoStack);
+        }
+        listener.run();
+    }
+
+    /**
+     * Whether replaying failed for good: a broken constraint (SQLite result codes CONSTRAINT and
+     * MISMATCH, or SQLState class 23 such as a vanished set). Anything else, e.g. SQLITE_BUSY after
+     * the busy timeout, may pass on the next try.
+     */
+    static boolean isPermanent(SQLException e) {
+        int code = e.getErrorCode() & 0xff;
+        String state = e.getSQLState();
+        return code == 19 || code == 20 || (state != null && state.startsWith("23"));
+    }
+
+    /** Drops an entry that failed to replay for good, so it does not block the rest of the history. */
+    void discard(Entry entry, boolean undo) {
+        synchronized (this) {
+            if ((undo ? undoStack : redoStack).remove(entry)) bytes -= entry.bytes();
+        }
+        listener.run();
+    }
+
+    private void push(Deque<Entry> stack, Entry entry) {
+        if (entry.bytes() > maxBytes) {
+            clear(stack);
+            return;
+        }
+        stack.push(entry);
+        bytes += entry.bytes();
+        while (bytes > maxBytes) {
+            Entry oldest = !undoStack.isEmpty() ? undoStack.pollLast() : redoStack.pollLast();
+            bytes -= oldest.bytes();
+        }
+    }
+
+    private void clear(Deque<Entry> stack) {
+        for (Entry entry : stack) bytes -= entry.bytes();
+        stack.clear();
+    }
+
+    /** A write that can be replayed on the writer connection. */
+    abstract static class Operation {
+        /** Approximate heap size, counted against the journal's cap. */
+        abstract long bytes();
+
+        boolean isBulk() { return true; }
+
+        /**
+         * Runs inside a transaction and returns the operation that reverts it, or {@code null} if
+         * its pre-image would exceed {@code maxBytes} (0 when nothing is journaled).
+         */
+        abstract Operation apply(DatabaseManager.PooledConnection c, long maxBytes) throws SQLException;
+    }
+
+    /** Deletes vokabeln by id, or a whole set with all its rows when {@code ids} is null. */
+    static final class RemoveRows extends Operation {
+        private final int setId;
+        private final int[] ids;
+
+        RemoveRows(int setId, int[] ids) {
+            this.setId = setId;
+            this.ids = ids;
+        }
+
+        @Override
+        long bytes() { return 32 + (ids == null ? 0 : 4L * ids.length); }
+
+        @Override
+        boolean isBulk() { return ids == null || ids.length != 1; }
+
+        @Override
+        RestoreRows apply(DatabaseManager.PooledConnection c, long maxBytes) throws SQLException {
+            boolean single = ids != null && ids.length == 1;
+            // A single row is always captured, the table needs it for the delete event
+            RowSnapshot before = RowSnapshot.capture(c, setId, ids, single ? Long.MAX_VALUE : maxBytes);
+            if (ids == null) {
+                PreparedStatement rows = c.prepare("DELETE FROM vokabeln WHERE set_id = ?");
+                rows.setInt(1, setId);
+                rows.executeUpdate();
+                PreparedStatement set = c.prepare("DELETE FROM vokabel_sets WHERE id = ?");
+                set.setInt(1, setId);
+                set.executeUpdate();
+            } else {
+                PreparedStatement delete = c.prepare("DELETE FROM vokabeln WHERE id = ?");
+                for (int id : ids) {
+                    delete.setInt(1, id);
+                    delete.addBatch();
+                }
+                delete.executeBatch();
+            }
+            if (single && before.size() == 1) c.changes.add(VokabelChange.deleted(setId, before.vokabel(0)));
+            return before != null ? new RestoreRows(before) : null;
+        }
+    }
+
+    /** Inserts rows (and their set, if it was removed too) again under their original ids. */
+    static final class RestoreRows extends Operation {
+        private static final int BATCH_SIZE = 10_000;
+        private final RowSnapshot snapshot;
+
+        RestoreRows(RowSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        RowSnapshot getSnapshot() { return snapshot; }
+
+        @Override
+        long bytes() { return snapshot.bytes(); }
+
+        @Override
+        boolean isBulk() { return snapshot.setName != null || snapshot.size() != 1; }
+
+        @Override
+        RemoveRows apply(DatabaseManager.PooledConnection c, long maxBytes) throws SQLException {
+            int setId = snapshot.setId;
+            if (snapshot.setName != null) restoreSet(c);
+            else if (!setExists(c, setId)) {
+                throw new SQLException("Das Set dieser Vokabel gibt es nicht mehr.", INTEGRITY_VIOLATION);
+            }
+
+            // Keys taken since the delete leave the restored row without one, like "keep both"
+            Set<String> keys = DatabaseManager.loadDuplicateKeys(c, setId);
+            PreparedStatement insert = c.prepare("INSERT INTO vokabeln (id, set_id, original, translation, norm_key) " +
+                    "VALUES (?, ?, ?, ?, ?) ON CONFLICT DO NOTHING");
+            DataInputStream in = snapshot.rows();
+            try {
+                for (int i = 0; i < snapshot.size(); i++) {
+                    int id = in.readInt();
+                    String original = readString(in), translation = readString(in), key = readString(in);
+                    // Older versions stored "" for originals without letters; those get no key
+                    if (key != null && key.isEmpty()) key = null;
+                    insert.setInt(1, id);
+                    insert.setInt(2, setId);
+                    insert.setString(3, original);
+                    insert.setString(4, translation);
+                    insert.setString(5, key != null && keys.add(key) ? key : null);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) insert.executeBatch();
+                }
+                insert.executeBatch();
+
+                PreparedStatement review = c.prepare("INSERT OR REPLACE INTO vokabel_reviews (vokabel_id, set_id, ease, " +
+                        "interval_days, repetitions, lapses, due_at, last_review) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                DataInputStream reviews = snapshot.reviews();
+                for (int i = 0; i < snapshot.reviewCount; i++) {
+                    review.setInt(1, reviews.readInt());
+                    review.setInt(2, setId);
+                    review.setDouble(3, reviews.readDouble());
+                    review.setDouble(4, reviews.readDouble());
+                    review.setInt(5, reviews.readInt());
+                    review.setInt(6, reviews.readInt());
+                    review.setLong(7, reviews.readLong());
+                    review.setLong(8, reviews.readLong());
+                    review.addBatch();
+                }
+                review.executeBatch();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (!isBulk()) c.changes.add(VokabelChange.inserted(setId, snapshot.vokabel(0)));
+            return new RemoveRows(setId, snapshot.setName != null ? null : snapshot.ids);
+        }
+
+        private void restoreSet(DatabaseManager.PooledConnection c) throws SQLException {
+            if (setExists(c, snapshot.setId)) return;
+            // Another set may have taken the name in the meantime
+            String name = snapshot.setName;
+            PreparedStatement taken = c.prepare("SELECT 1 FROM vokabel_sets WHERE name = ?");
+            for (int n = 2; ; n++) {
+                taken.setString(1, name);
+                try (ResultSet rs = taken.executeQuery()) {
+                    if (!rs.next()) break;
+                }
+                name = snapshot.setName + " (" + n + ")";
+            }
+            PreparedStatement insert = c.prepare("INSERT INTO vokabel_sets (id, name) VALUES (?, ?)");
+            insert.setInt(1, snapshot.setId);
+            insert.setString(2, name);
+            insert.executeUpdate();
+        }
+
+        private static boolean setExists(DatabaseManager.PooledConnection c, int setId) throws SQLException {
+            PreparedStatement pstmt = c.prepare("SELECT 1 FROM vokabel_sets WHERE id = ?");
+            pstmt.setInt(1, setId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /** Sets rows back to packed earlier values (original, translation and key). */
+    static final class UpdateRows extends Operation {
+        private final int[] ids;
+        private final byte[] values;
+
+        private UpdateRows(int[] ids, byte[] values) {
+            this.ids = ids;
+            this.values = values;
+        }
+
+        /** The current values of {@code ids}, or {@code null} if they exceed {@code maxBytes}. */
+        static UpdateRows capture(DatabaseManager.PooledConnection c, Collection<Integer> ids, long maxBytes)
+                throws SQLException {
+            if (maxBytes <= 0) return null;
+            PreparedStatement select = c.prepare(
+                    "SELECT set_id, original, translation, norm_key FROM vokabeln WHERE id = ?");
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buffer);
+            int[] found = new int[ids.size()];
+            int count = 0;
+            try {
+                for (int id : ids) {
+                    select.setInt(1, id);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) continue;
+                        out.writeInt(rs.getInt(1));
+                        writeString(out, rs.getString(2));
+                        writeString(out, rs.getString(3));
+                        writeString(out, rs.getString(4));
+                    }
+                    found[count++] = id;
+                    if (out.size() > maxBytes) return null;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return new UpdateRows(Arrays.copyOf(found, count), buffer.toByteArray());
+        }
+
+        @Override
+        long bytes() { return 48 + 4L * ids.length + values.length; }
+
+        @Override
+        boolean isBulk() { return false; }
+
+        @Override
+        UpdateRows apply(DatabaseManager.PooledConnection c, long maxBytes) throws SQLException {
+            List<Integer> idList = new ArrayList<>(ids.length);
+            for (int id : ids) idList.add(id);
+            UpdateRows before = capture(c, idList, maxBytes);
+            // Keys may move between these rows; free them all first so no step hits the unique index
+            PreparedStatement clearKey = c.prepare("UPDATE vokabeln SET norm_key = NULL WHERE id = ?");
+            for (int id : ids) {
+                clearKey.setInt(1, id);
+                clearKey.addBatch();
+            }
+            clearKey.executeBatch();
+
+            PreparedStatement taken = c.prepare("SELECT 1 FROM vokabeln WHERE set_id = ? AND norm_key = ? AND id <> ?");
+            PreparedStatement update = c.prepare(
+                    "UPDATE vokabeln SET original = ?, translation = ?, norm_key = ? WHERE id = ?");
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(values));
+            try {
+                for (int id : ids) {
+                    int setId = in.readInt();
+                    String original = readString(in), translation = readString(in), key = readString(in);
+                    // Older versions stored "" for originals without letters; those get no key
+                    if (key != null && key.isEmpty()) key = null;
+                    if (key != null) {
+                        taken.setInt(1, setId);
+                        taken.setString(2, key);
+                        taken.setInt(3, id);
+                        try (ResultSet rs = taken.executeQuery()) {
+                            if (rs.next()) key = null;
+                        }
+                    }
+                    update.setString(1, original);
+                    update.setString(2, translation);
+                    update.setString(3, key);
+                    update.setInt(4, id);
+                    if (update.executeUpdate() > 0) {
+                        c.changes.add(VokabelChange.updated(setId, new Vokabel(id, original, translation)));
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return before;
+        }
+    }
+
+    /** Several operations replayed in order; the inverse replays their inverses backwards. */
+    static final class Composite extends Operation {
+        private final List<Operation> parts;
+
+        private Composite(List<Operation> parts) {
+            this.parts = parts;
+        }
+
+        /** {@code null} if any part could not be captured. */
+        static Composite of(Operation... parts) {
+            for (Operation part : parts) {
+                if (part == null) return null;
+            }
+            return new Composite(Arrays.asList(parts));
+        }
+
+        @Override
+        long bytes() {
+            long total = 16;
+            for (Operation part : parts) total += part.bytes();
+            return total;
+        }
+
+        @Override
+        Composite apply(DatabaseManager.PooledConnection c, long maxBytes) throws SQLException {
+            Operation[] inverses = new Operation[parts.size()];
+            for (int i = 0; i < parts.size(); i++) {
+                inverses[parts.size() - 1 - i] = parts.get(i).apply(c, maxBytes);
+            }
+            return of(inverses);
+        }
+    }
+
+    /**
+     * Vokabeln (and optionally their set) as they were, packed into byte arrays: a few bytes per
+     * row plus the UTF-8 text, instead of several objects per row.
+     */
+    static final class RowSnapshot {
+        final int setId;
+        final String setName;
+        private final int[] ids;
+        private final byte[] rows;
+        private final int reviewCount;
+        private final byte[] reviews;
+
+        private RowSnapshot(int setId, String setName, int[] ids, byte[] rows, int reviewCount, byte[] reviews) {
+            this.setId = setId;
+            this.setName = setName;
+            this.ids = ids;
+            this.rows = rows;
+            this.reviewCount = reviewCount;
+            this.reviews = reviews;
+        }
+
+        /** The same rows, recorded as rows of {@code setId}. */
+        RowSnapshot inSet(int setId) {
+            return new RowSnapshot(setId, setName, ids, rows, reviewCount, reviews);
+        }
+
+        /**
+         * Reads rows {@code ids} of a set, or the whole set including its name when {@code ids} is
+         * null, with their review state. {@code null} if it exceeds {@code maxBytes}.
+         */
+        static RowSnapshot capture(DatabaseManager.PooledConnection c, int setId, int[] ids, long maxBytes)
+                throws SQLException {
+            if (maxBytes <= 0) return null;
+            String setName = null;
+            if (ids == null) {
+                PreparedStatement name = c.prepare("SELECT name FROM vokabel_sets WHERE id = ?");
+                name.setInt(1, setId);
+                try (ResultSet rs = name.executeQuery()) {
+                    if (!rs.next()) return null;
+                    setName = rs.getString(1);
+                }
+            }
+            try {
+                ByteArrayOutputStream rowBuffer = new ByteArrayOutputStream();
+                DataOutputStream rowOut = new DataOutputStream(rowBuffer);
+                int[] found = new int[ids != null ? ids.length : 1024];
+                int count = 0;
+                PreparedStatement select = c.prepare(ids == null
+                        ? "SELECT id, original, translation, norm_key FROM vokabeln WHERE set_id = ? ORDER BY id"
+                        : "SELECT id, original, translation, norm_key FROM vokabeln WHERE id = ?");
+                for (int i = 0; i < (ids == null ? 1 : ids.length); i++) {
+                    select.setInt(1, ids == null ? setId : ids[i]);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                            found[count++] = rs.getInt(1);
+                            rowOut.writeInt(rs.getInt(1));
+                            writeString(rowOut, rs.getString(2));
+                            writeString(rowOut, rs.getString(3));
+                            writeString(rowOut, rs.getString(4));
+                            if (rowOut.size() > maxBytes) return null;
+                        }
+                    }
+                }
+
+                ByteArrayOutputStream reviewBuffer = new ByteArrayOutputStream();
+                DataOutputStream reviewOut = new DataOutputStream(reviewBuffer);
+                int reviewCount = 0;
+                PreparedStatement review = c.prepare("SELECT vokabel_id, ease, interval_days, repetitions, lapses, " +
+                        "due_at, last_review FROM vokabel_reviews WHERE " + (ids == null ? "set_id = ?" : "vokabel_id = ?"));
+                for (int i = 0; i < (ids == null ? 1 : count); i++) {
+                    review.setInt(1, ids == null ? setId : found[i]);
+                    try (ResultSet rs = review.executeQuery()) {
+                        while (rs.next()) {
+                            reviewOut.writeInt(rs.getInt(1));
+                            reviewOut.writeDouble(rs.getDouble(2));
+                            reviewOut.writeDouble(rs.getDouble(3));
+                            reviewOut.writeInt(rs.getInt(4));
+                            reviewOut.writeInt(rs.getInt(5));
+                            reviewOut.writeLong(rs.getLong(6));
+                            reviewOut.writeLong(rs.getLong(7));
+                            reviewCount++;
+                        }
+                    }
+                    if (rowOut.size() + reviewOut.size() > maxBytes) return null;
+                }
+                return new RowSnapshot(setId, setName, Arrays.copyOf(found, count), rowBuffer.toByteArray(),
+                        reviewCount, reviewBuffer.toByteArray());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int size() { return ids.length; }
+
+        long bytes() { return 64 + 4L * ids.length + rows.length + reviews.length; }
+
+        DataInputStream rows() { return new DataInputStream(new ByteArrayInputStream(rows)); }
+
+        DataInputStream reviews() { return new DataInputStream(new ByteArrayInputStream(reviews)); }
+
+        /** Row {@code index} unpacked. */
+        Vokabel vokabel(int index) {
+            try {
+                DataInputStream in = rows();
+                for (int i = 0; ; i++) {
+                    int id = in.readInt();
+                    String original = readString(in), translation = readString(in);
+                    readString(in);
+                    if (i == index) return new Vokabel(id, original, translation);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
+
+/**
+ * Versioned schema changes, tracked in {@code PRAGMA user_version}. Each step runs in its own
+ * transaction together with the version bump, so startup can re-run this safely.
+ * Only ever append new steps; never change one that has shipped.
+ */
+class SchemaMigrations {
+    interface Migration {
+        void apply(Statement stmt) throws SQLException;
+    }
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+        // 1: base schema (IF NOT EXISTS, databases created before versioning already have it)
+        stmt -> {
+            stmt.execute("CREATE TABLE IF NOT EXISTS vokabel_sets (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS vokabeln (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, set_id INTEGER NOT NULL, " +
+                    "original TEXT NOT NULL, translation TEXT NOT NULL, " +
+                    "FOREIGN KEY (set_id) REFERENCES vokabel_sets(id) ON DELETE CASCADE)");
+        },
+        // 2: set lookups and cascading deletes; rows stay ordered by id within a set
+        stmt -> stmt.execute("CREATE INDEX IF NOT EXISTS idx_vokabeln_set_id ON vokabeln(set_id)"),
+        // 3: rows left behind while foreign keys were not enforced
+        stmt -> stmt.execute("DELETE FROM vokabeln WHERE set_id NOT IN (SELECT id FROM vokabel_sets)"),
+        // 4: spaced-repetition state per vokabel; set_id is copied so due cards are one index range
+        stmt -> {
+            stmt.execute("CREATE TABLE IF NOT EXISTS vokabel_reviews (" +
+                    "vokabel_id INTEGER PRIMARY KEY REFERENCES vokabeln(id) ON DELETE CASCADE, " +
+                    "set_id INTEGER NOT NULL, ease REAL NOT NULL, interval_days REAL NOT NULL, " +
+                    "repetitions INTEGER NOT NULL, lapses INTEGER NOT NULL, " +
+                    "due_at INTEGER NOT NULL, last_review INTEGER NOT NULL)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_reviews_set_due ON vokabel_reviews(set_id, due_at)");
+        },
+        // 5: full-text index over all sets, kept in sync with vokabeln by triggers
+        stmt -> {
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS vokabeln_fts USING fts5(original, translation, " +
+                    "content='vokabeln', content_rowid='id', tokenize='unicode61 remove_diacritics 2')");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS vokabeln_fts_ai AFTER INSERT ON vokabeln BEGIN " +
+                    "INSERT INTO vokabeln_fts(rowid, original, translation) VALUES (new.id, new.original, new.translation); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS vokabeln_fts_ad AFTER DELETE ON vokabeln BEGIN " +
+                    "INSERT INTO vokabeln_fts(vokabeln_fts, rowid, original, translation) " +
+                    "VALUES ('delete', old.id, old.original, old.translation); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS vokabeln_fts_au AFTER UPDATE OF original, translation ON vokabeln BEGIN " +
+                    "INSERT INTO vokabeln_fts(vokabeln_fts, rowid, original, translation) " +
+                    "VALUES ('delete', old.id, old.original, old.translation); " +
+                    "INSERT INTO vokabeln_fts(rowid, original, translation) VALUES (new.id, new.original, new.translation); END");
+            stmt.execute("INSERT INTO vokabeln_fts(vokabeln_fts) VALUES ('rebuild')");
+        },
+        // 6: normalized duplicate key, unique per set. Existing duplicates are kept but left without
+        //    a key (like "keep both"), so "Duplikate bereinigen" can still find them.
+        stmt -> {
+            stmt.execute("ALTER TABLE vokabeln ADD COLUMN norm_key TEXT");
+            Connection conn = stmt.getConnection();
+            try (PreparedStatement select = conn.prepareStatement(
+                         "SELECT id, set_id, original FROM vokabeln ORDER BY set_id, id");
+                 PreparedStatement update = conn.prepareStatement("UPDATE vokabeln SET norm_key = ? WHERE id = ?");
+                 ResultSet rs = select.executeQuery()) {
+                Set<String> keys = new HashSet<>();
+                int currentSet = Integer.MIN_VALUE, pending = 0;
+                while (rs.next()) {
+                    if (rs.getInt(2) != currentSet) {
+                        currentSet = rs.getInt(2);
+                        keys.clear();
+                    }
+                    String key = DuplicatePolicy.storedKey(rs.getString(3));
+                    // No key for punctuation-only originals, and later duplicates keep none either
+                    if (key == null || !keys.add(key)) continue;
+                    update.setString(1, key);
+                    update.setInt(2, rs.getInt(1));
+                    update.addBatch();
+                    if (++pending % 10_000 == 0) update.executeBatch();
+                }
+                update.executeBatch();
+            }
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_vokabeln_norm_key ON vokabeln(set_id, norm_key)");
+        },
+        // 7: append-only answer history. No foreign keys: the log outlives deleted vokabeln and sets.
+        stmt -> {
+            stmt.execute("CREATE TABLE answer_log (" +
+                    "id INTEGER PRIMARY KEY, session_id INTEGER NOT NULL, vokabel_id INTEGER NOT NULL, " +
+                    "set_id INTEGER NOT NULL, reverse INTEGER NOT NULL, verdict TEXT NOT NULL, " +
+                    "response_ms INTEGER NOT NULL, answered_at INTEGER NOT NULL)");
+            stmt.execute("CREATE INDEX idx_answer_log_set_time ON answer_log(set_id, answered_at)");
+        },
+        // 8: statistics aggregates, kept up to date with every answer-log batch; backfilled from the log
+        stmt -> {
+            stmt.execute("CREATE TABLE vokabel_stats (" +
+                    "vokabel_id INTEGER PRIMARY KEY, set_id INTEGER NOT NULL, attempts INTEGER NOT NULL, " +
+                    "correct INTEGER NOT NULL, typos INTEGER NOT NULL, streak INTEGER NOT NULL, " +
+                    "best_streak INTEGER NOT NULL, total_response_ms INTEGER NOT NULL, last_answered_at INTEGER NOT NULL)");
+            stmt.execute("CREATE INDEX idx_vokabel_stats_set ON vokabel_stats(set_id)");
+            stmt.execute("CREATE TABLE set_stats (" +
+                    "set_id INTEGER PRIMARY KEY, attempts INTEGER NOT NULL, correct INTEGER NOT NULL, " +
+                    "typos INTEGER NOT NULL, total_response_ms INTEGER NOT NULL, last_answered_at INTEGER NOT NULL)");
+            stmt.execute("CREATE TABLE daily_stats (" +
+                    "day INTEGER NOT NULL, set_id INTEGER NOT NULL, attempts INTEGER NOT NULL, " +
+                    "correct INTEGER NOT NULL, typos INTEGER NOT NULL, total_response_ms INTEGER NOT NULL, " +
+                    "PRIMARY KEY (day, set_id))");
+            DatabaseManager.PooledConnection c = new DatabaseManager.PooledConnection(stmt.getConnection());
+            try (PreparedStatement select = stmt.getConnection().prepareStatement(
+                    "SELECT session_id, vokabel_id, set_id, reverse, verdict, response_ms, answered_at FROM answer_log ORDER BY id");
+                 ResultSet rs = select.executeQuery()) {
+                List<AnswerEvent> chunk = new ArrayList<>();
+                while (rs.next()) {
+                    chunk.add(new AnswerEvent(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4) != 0,
+                            AnswerMatcher.Verdict.valueOf(rs.getString(5)), rs.getInt(6), rs.getLong(7)));
+                    if (chunk.size() == 10_000) {
+                        AnswerStatistics.apply(c, chunk);
+                        chunk.clear();
+                    }
+                }
+                AnswerStatistics.apply(c, chunk);
+            } finally {
+                c.closeStatements();
+            }
+        }
+    );
+
+    public static int latestVersion() {
+        return MIGRATIONS.size();
+    }
+
+    public static void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int version = userVersion(stmt);
+            boolean autoCommit = conn.getAutoCommit();
+            for (int v = version; v < MIGRATIONS.size(); v++) {
+                conn.setAutoCommit(false);
+                try {
+                    MIGRATIONS.get(v).apply(stmt);
+                    stmt.execute("PRAGMA user_version = " + (v + 1));
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Schema-Migration " + (v + 1) + " fehlgeschlagen: " + e.getMessage(), e);
+                } finally {
+                    conn.setAutoCommit(autoCommit);
+                }
+            }
+        }
+    }
+
+    static int userVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
+
+/**
+ * Optional settings from {@code vokabeltrainer.properties} in the working directory.
+ * Every key has a built-in default, so the file may be missing entirely.
+ */
+class AppConfig {
+    public static final String FILE_NAME = "vokabeltrainer.properties";
+    private final Properties properties;
+
+    public AppConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static AppConfig load() {
+        Properties properties = new Properties();
+        Path file = Paths.get(FILE_NAME);
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return new AppConfig(properties);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(getString(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Ungültiger Wert für " + key + ", verwende " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    /** A copy with {@code key} set, overriding the file. */
+    public AppConfig with(String key, String value) {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        copy.setProperty(key, value);
+        return new AppConfig(copy);
+    }
+
+    /** A copy with {@code key} set only if the file does not set it. */
+    public AppConfig withDefault(String key, String value) {
+        return getString(key, null) != null ? this : with(key, value);
+    }
+
+    /** A single SQL keyword such as {@code WAL} — anything else falls back to the default. */
+    public String getKeyword(String key, String defaultValue) {
+        String value = getString(key, defaultValue);
+        return value.matches("[A-Za-z_]+") ? value.toUpperCase() : defaultValue;
+    }
+}
+
+/** JFR event for one {@link DatabaseManager} operation: which method, the SQL it ran, rows touched. */
+@jdk.jfr.Name("vokabeltrainer.Database")
+@jdk.jfr.Label("Datenbankzugriff")
+@jdk.jfr.Category({"Vokabeltrainer", "Datenbank"})
+@jdk.jfr.StackTrace(false)
+class DatabaseEvent extends jdk.jfr.Event {
+    static final int MAX_SQL_LENGTH = 4000;
+
+    @jdk.jfr.Label("Operation")
+    String operation;
+
+    @jdk.jfr.Label("SQL")
+    String sql;
+
+    @jdk.jfr.Label("Zeilen")
+    long rowCount;
+
+    @jdk.jfr.Label("Schreibzugriff")
+    boolean write;
+
+    /** Starts an event, or returns {@code null} when no recording wants it (the common case). */
+    static DatabaseEvent begin(String operation, DatabaseManager.PooledConnection c, boolean write) {
+        DatabaseEvent event = new DatabaseEvent();
+        if (!event.isEnabled()) return null;
+        event.operation = operation;
+        event.write = write;
+        c.sqlTrace = new StringBuilder();
+        event.begin();
+        return event;
+    }
+
+    static void end(DatabaseEvent event, DatabaseManager.PooledConnection c, Object result) {
+        if (event == null) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.sql = c.sqlTrace.toString();
+            event.rowCount = rowCount(result);
+            event.commit();
+        }
+        c.sqlTrace = null;
+    }
+
+    /** Rows returned or changed, as far as the result type tells; -1 if it does not. */
+    static long rowCount(Object result) {
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result instanceof Map) return ((Map<?, ?>) result).size();
+        if (result instanceof Number) return ((Number) result).longValue();
+        if (result instanceof DuplicateReport) return ((DuplicateReport) result).getInserted();
+        if (result instanceof int[]) {
+            long sum = 0;
+            for (int count : (int[]) result) sum += Math.max(0, count);
+            return sum;
+        }
+        return -1;
+    }
+}
+
+/** JFR event for a user-visible UI step, from the click until its data is on screen. */
+@jdk.jfr.Name("vokabeltrainer.Ui")
+@jdk.jfr.Label("Oberfläche")
+@jdk.jfr.Category({"Vokabeltrainer", "Oberfläche"})
+@jdk.jfr.StackTrace(false)
+class UiEvent extends jdk.jfr.Event {
+    @jdk.jfr.Label("Aktion")
+    String action;
+
+    @jdk.jfr.Label("Details")
+    String detail;
+
+    @jdk.jfr.Label("Zeilen")
+    long rowCount = -1;
+
+    static UiEvent begin(String action) {
+        UiEvent event = new UiEvent();
+        event.action = action;
+        event.begin();
+        return event;
+    }
+
+    void finish(String detail, long rowCount) {
+        end();
+        if (shouldCommit()) {
+            this.detail = detail;
+            this.rowCount = rowCount;
+            commit();
+        }
+    }
+}
+
+/**
+ * Continuous JFR recording for {@code --jfr[=file.jfr]}: keeps the last {@code jfr.max_age_minutes}
+ * (at most {@code jfr.max_size_mb}) on disk and writes it to the file on exit. While running,
+ * {@code jcmd <pid> JFR.dump name=Vokabeltrainer filename=now.jfr} takes a snapshot.
+ */
+class FlightRecording {
+    private FlightRecording() {
+    }
+
+    /** Starts recording if {@code --jfr} is among {@code args}; returns the other arguments. */
+    static String[] startIfRequested(String[] args) {
+        List<String> rest = new ArrayList<>();
+        String destination = null;
+        for (String arg : args) {
+            if (arg.equals("--jfr")) destination = "vokabeltrainer.jfr";
+            else if (arg.startsWith("--jfr=")) destination = arg.substring(6);
+            else rest.add(arg);
+        }
+        if (destination != null) start(AppConfig.load(), Paths.get(destination));
+        return rest.toArray(new String[0]);
+    }
+
+    static void start(AppConfig config, Path destination) {
+        try {
+            jdk.jfr.Recording recording = new jdk.jfr.Recording(jdk.jfr.Configuration.getConfiguration("default"));
+            recording.setName("Vokabeltrainer");
+            recording.setToDisk(true);
+            recording.setMaxAge(java.time.Duration.ofMinutes(config.getLong("jfr.max_age_minutes", 30)));
+            recording.setMaxSize(config.getLong("jfr.max_size_mb", 100) * 1024 * 1024);
+            recording.setDestination(destination);
+            recording.setDumpOnExit(true);
+            java.time.Duration threshold = java.time.Duration.ofMillis(config.getLong("jfr.threshold_ms", 0));
+            recording.enable(DatabaseEvent.class).withThreshold(threshold);
+            recording.enable(UiEvent.class).withThreshold(threshold);
+            recording.start();
+            System.out.println("JFR-Aufzeichnung läuft, wird beim Beenden nach " + destination.toAbsolutePath() + " geschrieben");
+        } catch (IOException | java.text.ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("JFR-Aufzeichnung konnte nicht gestartet werden: " + e.getMessage());
+        }
+    }
+}
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets: exact below 64 ns, above that
+ * 32 buckets per power of two, so every reported value is within about 3% of the recorded one.
+ * Recording is a few atomic increments and never allocates; readers see a consistent-enough
+ * view without stopping writers.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final java.util.concurrent.atomic.LongAdder total = new java.util.concurrent.atomic.LongAdder();
+    private final java.util.concurrent.atomic.LongAdder sum = new java.util.concurrent.atomic.LongAdder();
+    private final java.util.concurrent.atomic.LongAccumulator max = new java.util.concurrent.atomic.LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(indexOf(nanos));
+        total.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /** Records the time since {@code startNanos}, taken from {@link System#nanoTime()}. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /** Largest value that falls into bucket {@code index}. */
+    static long highestValueAt(int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public long getCount() { return total.sum(); }
+    public long getMaxNanos() { return max.get(); }
+
+    public double getMeanNanos() {
+        long count = total.sum();
+        return count > 0 ? (double) sum.sum() / count : 0;
+    }
+
+    /** Value at {@code quantile} (0..1), or 0 when nothing has been recorded. */
+    public long getValueAtQuantile(double quantile) {
+        long count = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) count += snapshot[i] = counts.get(i);
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(highestValueAt(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"count\": %d, \"meanMs\": %.3f, \"p50Ms\": %.3f, \"p90Ms\": %.3f, \"p99Ms\": %.3f, \"p999Ms\": %.3f, \"maxMs\": %.3f}",
+                getCount(), getMeanNanos() / 1e6, getValueAtQuantile(0.5) / 1e6, getValueAtQuantile(0.9) / 1e6,
+                getValueAtQuantile(0.99) / 1e6, getValueAtQuantile(0.999) / 1e6, getMaxNanos() / 1e6);
+    }
+}
+
+/**
+ * Process-wide registry of named {@link LatencyHistogram}s. Readable in code through
+ * {@link #histograms()}, over JMX as {@code Vokabeltrainer:type=Metrics} (attributes
+ * {@code <name>.p99Ms} etc.) and as a JSON file written on exit ({@code metrics.dump_file}).
+ */
+class Metrics {
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static final String[] STATS = {"count", "meanMs", "p50Ms", "p90Ms", "p99Ms", "maxMs"};
+
+    private Metrics() {
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public static Map<String, LatencyHistogram> histograms() {
+        return Collections.unmodifiableMap(HISTOGRAMS);
+    }
+
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder("{\n");
+        Iterator<LatencyHistogram> it = HISTOGRAMS.values().iterator();
+        while (it.hasNext()) {
+            LatencyHistogram histogram = it.next();
+            sb.append("  ").append(VokabelServer.quote(histogram.getName())).append(": ").append(histogram.toJson());
+            sb.append(it.hasNext() ? ",\n" : "\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    public static void dump(Path file) {
+        try {
+            Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Registers the JMX bean and, unless {@code metrics.dump_file} is empty, a dump on exit. */
+    public static void install(AppConfig config) {
+        String dumpFile = config.getString("metrics.dump_file", "vokabeltrainer-metrics.json");
+        if (!dumpFile.isEmpty() && !dumpFile.equalsIgnoreCase("none")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(Paths.get(dumpFile)), "Vokabeltrainer-Metrics"));
+        }
+        try {
+            javax.management.ObjectName name = new javax.management.ObjectName("Vokabeltrainer:type=Metrics");
+            javax.management.MBeanServer server = java.lang.management.ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) server.registerMBean(new MetricsMBean(), name);
+        } catch (javax.management.JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Like {@link #install} but off the calling thread: starting the platform MBean server takes a while. */
+    public static void installInBackground(AppConfig config) {
+        Thread thread = new Thread(() -> install(config), "Vokabeltrainer-Metrics-Install");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Dynamic so every histogram shows up as attributes without a public interface per metric. */
+    static class MetricsMBean implements javax.management.DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws javax.management.AttributeNotFoundException {
+            int dot = attribute.lastIndexOf('.');
+            LatencyHistogram histogram = dot > 0 ? HISTOGRAMS.get(attribute.substring(0, dot)) : null;
+            if (histogram == null) throw new javax.management.AttributeNotFoundException(attribute);
+            switch (attribute.substring(dot + 1)) {
+                case "count": return (double) histogram.getCount();
+                case "meanMs": return histogram.getMeanNanos() / 1e6;
+                case "p50Ms": return histogram.getValueAtQuantile(0.5) / 1e6;
+                case "p90Ms": return histogram.getValueAtQuantile(0.9) / 1e6;
+                case "p99Ms": return histogram.getValueAtQuantile(0.99) / 1e6;
+                case "maxMs": return histogram.getMaxNanos() / 1e6;
+                default: throw new javax.management.AttributeNotFoundException(attribute);
+            }
+        }
+
+        @Override
+        public javax.management.AttributeList getAttributes(String[] attributes) {
+            javax.management.AttributeList list = new javax.management.AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new javax.management.Attribute(attribute, getAttribute(attribute)));
+                } catch (javax.management.AttributeNotFoundException e) {
+                    // skipped, as the DynamicMBean contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(javax.management.Attribute attribute) throws javax.management.AttributeNotFoundException {
+            throw new javax.management.AttributeNotFoundException(attribute.getName() + " ist schreibgeschützt");
+        }
+
+        @Override
+        public javax.management.AttributeList setAttributes(javax.management.AttributeList attributes) {
+            return new javax.management.AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws javax.management.ReflectionException {
+            if (actionName.equals("dump")) return toJson();
+            if (actionName.equals("reset")) {
+                for (LatencyHistogram histogram : HISTOGRAMS.values()) histogram.reset();
+                return null;
+            }
+            throw new javax.management.ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public javax.management.MBeanInfo getMBeanInfo() {
+            List<javax.management.MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String name : HISTOGRAMS.keySet()) {
+                for (String stat : STATS) {
+                    attributes.add(new javax.management.MBeanAttributeInfo(name + "." + stat, "java.lang.Double",
+                            name + " " + stat, true, false, false));
+                }
+            }
+            javax.management.MBeanOperationInfo[] operations = {
+                new javax.management.MBeanOperationInfo("dump", "Alle Histogramme als JSON",
+                        new javax.management.MBeanParameterInfo[0], "java.lang.String", javax.management.MBeanOperationInfo.INFO),
+                new javax.management.MBeanOperationInfo("reset", "Alle Histogramme leeren",
+                        new javax.management.MBeanParameterInfo[0], "void", javax.management.MBeanOperationInfo.ACTION)
+            };
+            return new javax.management.MBeanInfo(getClass().getName(), "Vokabeltrainer-Latenzen",
+                    attributes.toArray(new javax.management.MBeanAttributeInfo[0]), null, operations, null);
+        }
+    }
+}
+
+/**
+ * Runs all database work off the EDT. Writes go through {@link #submit} onto a single ordered
+ * lane, so they commit in the order they were issued. Reads go through {@link #read} onto a small
+ * pool, but each read first waits for the writes submitted before it, so a reload after a write
+ * always sees that write. Results are delivered as futures; use {@link #EDT} to apply them back
+ * on the Swing thread.
+ */
+class AsyncDatabase {
+    public static final Executor EDT = SwingUtilities::invokeLater;
+    private static final int COMPACT_STEP_PAGES = 256;
+    private static final int READER_THREADS = 4;
+
+    interface SqlTask<T> {
+        T run(DatabaseManager db) throws Exception;
+    }
+
+    private final DatabaseManager db;
+    private final ExecutorService writer;
+    private final ExecutorService readers;
+    // Completes once everything submitted to the writer so far has run; reads wait for it
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+    // Set if initializeInBackground failed; every later task fails with it
+    private volatile SQLException startupError;
+    private final AtomicLong searchGeneration = new AtomicLong();
+    private volatile CompletableFuture<List<VokabelSearchResult>> pendingSearch;
+
+    public AsyncDatabase(DatabaseManager db) {
+        this.db = db;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Vokabeltrainer-DB-Writer");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.readers = Executors.newFixedThreadPool(READER_THREADS, r -> {
+            Thread t = new Thread(r, "Vokabeltrainer-DB-Reader-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens the database (driver, connections, migrations) as the first task on the writer lane.
+     * Everything submitted in the meantime is held back and runs once the database is ready. If it
+     * cannot be opened, the returned future and every later task fail with that error, so whichever
+     * view asks first shows the real cause.
+     */
+    public CompletableFuture<Void> initializeInBackground() {
+        return submit(d -> {
+            try {
+                d.initialize();
+            } catch (SQLException e) {
+                startupError = new SQLException("Die Datenbank konnte nicht geöffnet werden: " + e.getMessage(), e);
+                throw startupError;
+            }
+            return null;
+        });
+    }
+
+    /** Runs a write, or a read that must not overtake other writes, after everything submitted before it. */
+    public <T> CompletableFuture<T> submit(SqlTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        synchronized (writer) {
+            lastWrite = done;
+            writer.execute(() -> {
+                try {
+                    run(task, future);
+                } finally {
+                    done.complete(null);
+                }
+            });
+        }
+        return future;
+    }
+
+    /** Runs a read on the pool once the writes submitted before it have run. */
+    public <T> CompletableFuture<T> read(SqlTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<Void> gate;
+        synchronized (writer) {
+            gate = lastWrite;
+        }
+        if (gate.isDone()) readers.execute(() -> run(task, future));
+        else gate.whenComplete((ignored, error) -> readers.execute(() -> run(task, future)));
+        return future;
+    }
+
+    private <T> void run(SqlTask<T> task, CompletableFuture<T> future) {
+        if (future.isCancelled()) return;
+        try {
+            if (startupError != null) throw startupError;
+            future.complete(task.run(db));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    /** Like {@link DatabaseManager#addChangeListener} but delivers the changes on the EDT. */
+    public void addChangeListener(DatabaseManager.ChangeListener listener) {
+        db.addChangeListener(changes -> EDT.execute(() -> listener.vokabelnChanged(changes)));
+    }
+
+    public CompletableFuture<List<VokabelSet>> getAllSets() {
+        return read(DatabaseManager::getAllSets);
+    }
+
+    public CompletableFuture<List<Vokabel>> getVokabelnBySet(int setId) {
+        return read(d -> d.getVokabelnBySet(setId));
+    }
+
+    public CompletableFuture<Void> createSet(String name) {
+        return submit(d -> { d.createSet(name); return null; });
+    }
+
+    public CompletableFuture<Void> deleteSet(int setId) {
+        CompletableFuture<Void> result = submit(d -> { d.deleteSet(setId); return null; });
+        result.thenRun(this::compactInBackground);
+        return result;
+    }
+
+    /**
+     * Reclaims free pages in small incremental-vacuum steps. Every step is its own task,
+     * so queued UI queries run in between and never wait for the whole compaction. Databases not
+     * yet converted by {@link #enableIncrementalVacuum()} are skipped.
+     */
+    public void compactInBackground() {
+        compactStep(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Converts an older database for {@link #compactInBackground()} with one full VACUUM. It holds
+     * the writer lane, and the reads queued behind it, until the file is rewritten.
+     */
+    public CompletableFuture<Boolean> enableIncrementalVacuum() {
+        return submit(DatabaseManager::enableIncrementalVacuum);
+    }
+
+    private void compactStep(int previousRemaining) {
+        submit(d -> d.compact(COMPACT_STEP_PAGES)).whenComplete((remaining, error) -> {
+            if (error != null) error.printStackTrace();
+            else if (remaining > 0 && remaining < previousRemaining) compactStep(remaining);
+        });
+    }
+
+    public CompletableFuture<Integer> addVokabel(int setId, String original, String translation) {
+        return submit(d -> d.addVokabel(setId, original, translation));
+    }
+
+    public CompletableFuture<DuplicateReport> deduplicateSet(int setId) {
+        return submit(d -> {
+            DuplicatePolicy policy = d.getDuplicatePolicy();
+            // Cleaning up with "keep both" would only report, so fold duplicates instead
+            return d.deduplicateSet(setId, policy == DuplicatePolicy.KEEP_BOTH ? DuplicatePolicy.MERGE : policy);
+        });
+    }
+
+    public CompletableFuture<Void> deleteVokabel(int vokabelId) {
+        return submit(d -> { d.deleteVokabel(vokabelId); return null; });
+    }
+
+    public CompletableFuture<Integer> updateVokabeln(List<Vokabel> edits) {
+        return submit(d -> d.updateVokabeln(edits));
+    }
+
+    public UndoJournal getUndoJournal() {
+        return db.getUndoJournal();
+    }
+
+    public CompletableFuture<UndoJournal.Entry> undo() {
+        return submit(DatabaseManager::undo);
+    }
+
+    public CompletableFuture<UndoJournal.Entry> redo() {
+        return submit(DatabaseManager::redo);
+    }
+
+    /**
+     * Imports a file after the writes submitted before it. The file is parsed on a thread of its
+     * own; with an importer from {@link #newImporter} only the chunk inserts go through the writer
+     * lane, so reads queued during a long import run between two chunks instead of after the file.
+     */
+    public CompletableFuture<VokabelImporter.ImportResult> importFile(VokabelImporter importer, Path file, int setId,
+                                                                      VokabelImporter.ProgressListener listener) {
+        Executor importThread = task -> {
+            Thread t = new Thread(task, "Vokabeltrainer-Import");
+            t.setDaemon(true);
+            t.start();
+        };
+        return submit(d -> null).thenApplyAsync(ignored -> {
+            try {
+                return importer.importFile(file, setId, listener);
+            } catch (IOException | SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, importThread);
+    }
+
+    public CompletableFuture<VokabelExporter.ExportResult> export(Path file, Integer setId) {
+        return read(d -> new VokabelExporter(d).export(file, setId, VokabelExporter.Format.forFile(file)));
+    }
+
+    /**
+     * Search-as-you-type: a newer search supersedes older ones, which are skipped if they
+     * have not started yet and whose results are dropped otherwise.
+     */
+    public CompletableFuture<List<VokabelSearchResult>> search(String text, int limit) {
+        long generation = searchGeneration.incrementAndGet();
+        CompletableFuture<List<VokabelSearchResult>> previous = pendingSearch;
+        if (previous != null) previous.cancel(false);
+        CompletableFuture<List<VokabelSearchResult>> future = read(d ->
+                generation == searchGeneration.get() ? d.searchVokabeln(text, limit) : null);
+        pendingSearch = future;
+        return future.thenApply(results -> generation == searchGeneration.get() ? results : null);
+    }
+
+    /** An importer for {@link #importFile} that writes every chunk as a task of its own on the writer lane. */
+    public VokabelImporter newImporter(int commitSize) {
+        return new VokabelImporter(db, commitSize, this::insertChunk);
+    }
+
+    private DuplicateReport insertChunk(int setId, List<String[]> chunk, DuplicatePolicy policy, Set<String> knownKeys)
+            throws SQLException {
+        try {
+            return submit(d -> d.insertVokabelnBatch(setId, chunk, policy, knownKeys)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Import unterbrochen", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) throw (SQLException) e.getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new SQLException(e.getCause());
+        }
+    }
+
+    /** Lets queued work finish, then closes the connection (and its cached statements). */
+    public void shutdown() {
+        writer.shutdown();
+        readers.shutdown();
+        try {
+            if (!writer.awaitTermination(2, TimeUnit.SECONDS) || !readers.awaitTermination(2, TimeUnit.SECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        db.close();
+    }
+
+    public static boolean isCancellation(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof CancellationException;
+    }
+
+    public static String errorMessage(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+}
+
+/**
+ * Hot snapshots of the database in {@code backup.dir}. Every snapshot is copied by
+ * {@link DatabaseManager#backupTo} on the backup thread, written under a temporary name, checked
+ * and only then renamed, so a crash never leaves a half-written file that looks like a backup.
+ * The oldest beyond {@code backup.keep} are deleted. With {@code backup.interval_minutes} above 0
+ * a snapshot is also taken on that schedule, unless nothing was written since the last one.
+ */
+class BackupManager implements Closeable {
+    static final String PREFIX = "vokabeltrainer-", SUFFIX = ".db";
+    private static final String PART_SUFFIX = ".part";
+    private static final java.time.format.DateTimeFormatter STAMP =
+            java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    // The first scheduled snapshot leaves the first minute after startup to the UI
+    private static final long STARTUP_DELAY_MILLIS = 60_000;
+
+    interface ProgressListener {
+        void progress(int pagesCopied, int totalPages);
+    }
+
+    static class Snapshot {
+        final Path file;
+        final long bytes, millis;
+
+        Snapshot(Path file, long bytes, long millis) {
+            this.file = file;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        double megabytesPerSecond() {
+            return millis > 0 ? bytes / 1048576.0 * 1000 / millis : 0;
+        }
+    }
+
+    private final DatabaseManager db;
+    private final Path dir;
+    private final long intervalMillis;
+    private final int keep, pagesPerStep;
+    private final boolean verify;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Vokabeltrainer-Backup");
+        t.setDaemon(true);
+        return t;
+    });
+    // Write count of the database when the newest snapshot started; -1 before the first one
+    private volatile long snapshotWrites = -1;
+
+    BackupManager(DatabaseManager db, AppConfig config) {
+        this.db = db;
+        this.dir = Paths.get(config.getString("backup.dir", "backups"));
+        this.intervalMillis = config.getLong("backup.interval_minutes", 60) * 60_000;
+        this.keep = Math.max(1, config.getInt("backup.keep", 5));
+        this.pagesPerStep = config.getInt("backup.pages_per_step", 1024);
+        this.verify = Boolean.parseBoolean(config.getString("backup.verify", "true"));
+    }
+
+    /** Headless {@code --backup} and {@code --restore=<file>}; the app should not be running. */
+    public static void main(String[] args) throws Exception {
+        AppConfig config = AppConfig.load();
+        DatabaseManager db = new DatabaseManager(config);
+        db.initialize();
+        BackupManager backups = new BackupManager(db, config);
+        try {
+            String restore = null;
+            for (String arg : args) {
+                if (arg.startsWith("--restore=")) restore = arg.substring(10);
+            }
+            if (restore == null) {
+                Snapshot snapshot = backups.snapshot(null);
+                System.out.printf("Gesichert nach %s: %,d KB in %,d ms (%.1f MB/s)%n", snapshot.file,
+                        snapshot.bytes / 1024, snapshot.millis, snapshot.megabytesPerSecond());
+            } else {
+                long start = System.nanoTime();
+                Snapshot before = backups.restore(Paths.get(restore), null);
+                System.out.printf("Wiederhergestellt aus %s in %,d ms; der vorherige Stand liegt in %s%n", restore,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), before.file);
+            }
+        } finally {
+            backups.close();
+            db.close();
+        }
+    }
+
+    public Path getDirectory() { return dir; }
+
+    /** Schedules the periodic snapshots, if configured. Call once the database is open. */
+    public void start() {
+        deleteLeftovers();
+        if (intervalMillis <= 0) return;
+        long newest = 0;
+        try {
+            for (Path file : listSnapshots()) newest = Math.max(newest, Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        // A snapshot overdue from an earlier run is taken soon, otherwise the interval continues
+        long delay = Math.max(STARTUP_DELAY_MILLIS, newest + intervalMillis - System.currentTimeMillis());
+        executor.scheduleWithFixedDelay(this::scheduledSnapshot, delay, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduledSnapshot() {
+        if (db.getWriteCount() == snapshotWrites) return;
+        try {
+            snapshot(null);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public CompletableFuture<Snapshot> snapshotAsync(ProgressListener listener) {
+        return submit(() -> snapshot(listener));
+    }
+
+    public CompletableFuture<Snapshot> restoreAsync(Path file, ProgressListener listener) {
+        return submit(() -> restore(file, listener));
+    }
+
+    /** On the backup thread, so a manual snapshot never overlaps a scheduled one. */
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    Snapshot snapshot(ProgressListener listener) throws IOException, SQLException {
+        Snapshot snapshot = takeSnapshot("", listener);
+        rotate();
+        return snapshot;
+    }
+
+    /**
+     * Verified restore: {@code file} is copied into the backup directory, and the copy gets a full
+     * integrity check and is what gets restored, so the chosen file is never opened for writing and
+     * cannot change between check and restore. The current state is snapshotted before it is
+     * replaced, so a restore can itself be undone by restoring that snapshot, which is returned.
+     */
+    Snapshot restore(Path file, ProgressListener listener) throws IOException, SQLException {
+        if (!Files.isRegularFile(file)) throw new SQLException("Sicherung nicht gefunden: " + file);
+        Files.createDirectories(dir);
+        Path copy = dir.resolve(PREFIX + "wiederherstellung" + PART_SUFFIX);
+        try {
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            verify(copy, file.getFileName().toString(), true);
+            Snapshot before = takeSnapshot("-vor-wiederherstellung", null);
+            db.restoreFrom(copy, pagesPerStep, listener);
+            rotate();
+            return before;
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private Snapshot takeSnapshot(String label, ProgressListener listener) throws IOException, SQLException {
+        Files.createDirectories(dir);
+        String name = PREFIX + java.time.LocalDateTime.now().format(STAMP) + label;
+        Path target = dir.resolve(name + SUFFIX);
+        Path part = dir.resolve(target.getFileName() + PART_SUFFIX);
+        long start = System.nanoTime();
+        long writes = db.getWriteCount();
+        try {
+            db.backupTo(part, pagesPerStep, listener);
+            seal(part);
+            if (verify) verify(part, target.getFileName().toString(), false);
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+        snapshotWrites = writes;
+        return new Snapshot(target, Files.size(target), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** The copy keeps the source's WAL mode; switched back, a snapshot is one self-contained file. */
+    private static void seal(Path file) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=DELETE");
+        }
+    }
+
+    /**
+     * Checks that {@code file} is an intact database of this app and not newer than it; errors
+     * call it {@code name}. {@code full} runs {@code integrity_check}, otherwise the faster
+     * {@code quick_check} that skips comparing indexes with their tables. FTS5 writes while it
+     * checks its index, so the file is opened read-write: only pass copies made by this class.
+     */
+    static void verify(Path file, String name, boolean full) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file);
+             Statement stmt = conn.createStatement()) {
+            String what = "Die Sicherung " + name;
+            check(stmt, full ? "PRAGMA integrity_check" : "PRAGMA quick_check", what);
+            try (ResultSet rs = stmt.executeQuery("SELECT count(*) FROM sqlite_master " +
+                    "WHERE type = 'table' AND name IN ('vokabel_sets', 'vokabeln')")) {
+                if (!rs.next() || rs.getInt(1) != 2) throw new SQLException(what + " ist keine Vokabeltrainer-Datenbank");
+            }
+            if (SchemaMigrations.userVersion(stmt) > SchemaMigrations.latestVersion()) {
+                throw new SQLException(what + " stammt von einer neueren Version des Vokabeltrainers");
+            }
+        }
+    }
+
+    /** Runs an integrity pragma and fails with its findings unless it reports "ok". */
+    private static void check(Statement stmt, String pragma, String what) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery(pragma)) {
+            while (rs.next() && problems.size() < 5) {
+                if (!"ok".equals(rs.getString(1))) problems.add(rs.getString(1));
+            }
+        }
+        if (!problems.isEmpty()) throw new SQLException(what + " ist beschädigt: " + String.join("; ", problems));
+    }
+
+    /** Snapshots in the backup directory, oldest first (the names start with their time). */
+    public List<Path> listSnapshots() throws IOException {
+        if (!Files.isDirectory(dir)) return new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            List<Path> snapshots = new ArrayList<>();
+            for (Path file : files) snapshots.add(file);
+            snapshots.sort(Comparator.comparing(file -> file.getFileName().toString()));
+            return snapshots;
+        }
+    }
+
+    private void rotate() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = 0; i < snapshots.size() - keep; i++) Files.deleteIfExists(snapshots.get(i));
+    }
+
+    /** Temporary files of a snapshot that was cut off when the app ended. */
+    private void deleteLeftovers() {
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + PART_SUFFIX + "*")) {
+            for (Path file : files) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Stops the schedule; a snapshot still being copied is cleaned up on the next start. */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
+
+/**
+ * Streams CSV/TSV files line by line into a set. Rows are collected into chunks of
+ * {@code commitSize} and written with one batched transaction per chunk, so memory use
+ * is bounded by the commit size and not by the file size.
+ */
+class VokabelImporter {
+    public static final int DEFAULT_COMMIT_SIZE = 10_000;
+
+    interface ProgressListener {
+        void onProgress(long rows, long bytesRead, long totalBytes, double rowsPerSecond);
+    }
+
+    static class ImportResult {
+        final long rows, skipped, millis;
+        final DuplicateReport duplicates;
+
+        ImportResult(long rows, long skipped, long millis, DuplicateReport duplicates) {
+            this.rows = rows;
+            this.skipped = skipped;
+            this.millis = millis;
+            this.duplicates = duplicates;
+        }
+
+        double rowsPerSecond() {
+            return millis > 0 ? rows * 1000.0 / millis : rows;
+        }
+    }
+
+    /** Writes one chunk of rows; the chunk list is reused once this returns. */
+    interface ChunkWriter {
+        DuplicateReport insert(int setId, List<String[]> chunk, DuplicatePolicy policy, Set<String> knownKeys)
+                throws SQLException;
+    }
+
+    private final DatabaseManager db;
+    private final int commitSize;
+    private final ChunkWriter chunks;
+    private volatile boolean cancelled = false;
+
+    public VokabelImporter(DatabaseManager db, int commitSize) {
+        this(db, commitSize, db::insertVokabelnBatch);
+    }
+
+    VokabelImporter(DatabaseManager db, int commitSize, ChunkWriter chunks) {
+        this.db = db;
+        this.commitSize = Math.max(1, commitSize);
+        this.chunks = chunks;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public ImportResult importFile(Path file, int setId, ProgressListener listener) throws IOException, SQLException {
+        if (VokabelExporter.Format.forFile(file) == VokabelExporter.Format.BINARY) {
+            return importBinary(file, setId, listener);
+        }
+        char delimiter = detectDelimiter(file);
+        // Progress is measured in file bytes; umlauts take two of them but are one char
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8.newDecoder()))) {
+            return importFrom(reader, in::getCount, delimiter, setId, Files.size(file), listener);
+        }
+    }
+
+    /** {@code bytesRead} reports how much of the {@code totalBytes} input the reader has consumed. */
+    public ImportResult importFrom(BufferedReader reader, LongSupplier bytesRead, char delimiter, int setId,
+                                   long totalBytes, ProgressListener listener) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rows = 0, skipped = 0;
+        List<String[]> chunk = new ArrayList<>(commitSize);
+        DuplicatePolicy policy = db.getDuplicatePolicy();
+        Set<String> knownKeys = db.loadDuplicateKeys(setId);
+        DuplicateReport duplicates = new DuplicateReport();
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        String line;
+        boolean firstLine = true;
+        while (!cancelled && (line = reader.readLine()) != null) {
+            if (firstLine && line.startsWith("\uFEFF")) line = line.substring(1);
+            firstLine = false;
+            // Quoted fields may span several physical lines
+            while (!parseLine(line, delimiter, fields, field)) {
+                String next = reader.readLine();
+                if (next == null) break;
+                line = line + "\n" + next;
+            }
+            if (fields.size() < 2 || fields.get(0).trim().isEmpty() || fields.get(1).trim().isEmpty()) {
+                if (!line.trim().isEmpty()) skipped++;
+                continue;
+            }
+            chunk.add(new String[]{fields.get(0).trim(), fields.get(1).trim()});
+            if (chunk.size() >= commitSize) {
+                duplicates.add(chunks.insert(setId, chunk, policy, knownKeys));
+                rows += chunk.size();
+                chunk.clear();
+                report(listener, rows, bytesRead.getAsLong(), totalBytes, start);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            duplicates.add(chunks.insert(setId, chunk, policy, knownKeys));
+            rows += chunk.size();
+        }
+        report(listener, rows, totalBytes > 0 ? totalBytes : bytesRead.getAsLong(), totalBytes, start);
+        return new ImportResult(rows, skipped, (System.nanoTime() - start) / 1_000_000, duplicates);
+    }
+
+    /** Imports every vokabel of a {@code .vokb} export into one set. */
+    public ImportResult importBinary(Path file, int setId, ProgressListener listener) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        List<String[]> chunk = new ArrayList<>(commitSize);
+        DuplicatePolicy policy = db.getDuplicatePolicy();
+        Set<String> knownKeys = db.loadDuplicateKeys(setId);
+        DuplicateReport duplicates = new DuplicateReport();
+        try (VokabelBinaryReader reader = new VokabelBinaryReader(file)) {
+            byte type;
+            while (!cancelled && (type = reader.next()) != VokabelBinaryReader.END) {
+                if (type != VokabelBinaryReader.VOKABEL) continue;
+                chunk.add(new String[]{VokabelBinaryReader.text(reader.original()),
+                        VokabelBinaryReader.text(reader.translation())});
+                if (chunk.size() >= commitSize) {
+                    duplicates.add(chunks.insert(setId, chunk, policy, knownKeys));
+                    rows += chunk.size();
+                    chunk.clear();
+                    report(listener, rows, reader.position(), reader.size(), start);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                duplicates.add(chunks.insert(setId, chunk, policy, knownKeys));
+                rows += chunk.size();
+            }
+            report(listener, rows, reader.size(), reader.size(), start);
+        }
+        return new ImportResult(rows, 0, (System.nanoTime() - start) / 1_000_000, duplicates);
+    }
+
+    /** Counts the bytes read through it, for progress in terms of the file size. */
+    static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() { return count; }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static void report(ProgressListener listener, long rows, long bytesRead, long totalBytes, long start) {
+        if (listener == null) return;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        listener.onProgress(rows, bytesRead, totalBytes, seconds > 0 ? rows / seconds : rows);
+    }
+
+    static char detectDelimiter(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".tsv") || name.endsWith(".tab")) return '\t';
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            if (first == null) return ',';
+            if (first.indexOf('\t') >= 0) return '\t';
+            long semicolons = first.chars().filter(c -> c == ';').count();
+            long commas = first.chars().filter(c -> c == ',').count();
+            return semicolons > commas ? ';' : ',';
+        }
+    }
+
+    /**
+     * Splits one record into {@code fields}. Returns {@code false} if a quoted field is still open
+     * at the end of the line and the caller has to append the next line.
+     */
+    static boolean parseLine(String line, char delimiter, List<String> fields, StringBuilder field) {
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) return false;
+        fields.add(field.toString());
+        return true;
+    }
+}
+
+/**
+ * Exports one or all sets as CSV/TSV or as the length-prefixed {@code .vokb} binary format.
+ * Rows are streamed from the database straight into a buffered FileChannel.
+ *
+ * <p>Binary layout (big endian): {@code int MAGIC, short VERSION}, then records starting with a
+ * tag byte: {@code 'S' int setId, int len, name} / {@code 'V' int id, int len, original, int len,
+ * translation} / {@code 'E' long vokabelCount}. All strings are UTF-8.
+ */
+class VokabelExporter {
+    static final int MAGIC = 0x564F4B42; // "VOKB"
+    static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    enum Format {
+        CSV, TSV, BINARY;
+
+        static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            if (name.endsWith(".vokb")) return BINARY;
+            if (name.endsWith(".tsv") || name.endsWith(".tab")) return TSV;
+            return CSV;
+        }
+    }
+
+    static class ExportResult {
+        final long rows, bytes, millis;
+
+        ExportResult(long rows, long bytes, long millis) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.millis = millis;
+        }
+
+        double megabytesPerSecond() {
+            return millis > 0 ? bytes / 1048576.0 * 1000 / millis : 0;
+        }
+    }
+
+    private final DatabaseManager db;
+
+    public VokabelExporter(DatabaseManager db) {
+        this.db = db;
+    }
+
+    public ExportResult export(Path file, Integer setId, Format format) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rows;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            rows = format == Format.BINARY ? writeBinary(channel, setId) : writeText(channel, setId, format);
+        }
+        return new ExportResult(rows, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long writeText(FileChannel channel, Integer setId, Format format) throws IOException, SQLException {
+        char delimiter = format == Format.TSV ? '\t' : ',';
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long rows = db.streamVokabeln(setId, (sId, setName, id, original, translation) -> {
+            writeField(out, original, delimiter);
+            out.write(delimiter);
+            writeField(out, translation, delimiter);
+            if (setId == null) {
+                out.write(delimiter);
+                writeField(out, setName, delimiter);
+            }
+            out.write('\n');
+        });
+        out.flush();
+        return rows;
+    }
+
+    private static void writeField(Writer out, String value, char delimiter) throws IOException {
+        boolean quote = value.indexOf(delimiter) >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private long writeBinary(FileChannel channel, Integer setId) throws IOException, SQLException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).putShort(VERSION);
+        int[] currentSet = {Integer.MIN_VALUE};
+        long rows = db.streamVokabeln(setId, (sId, setName, id, original, translation) -> {
+            if (sId != currentSet[0]) {
+                currentSet[0] = sId;
+                byte[] name = setName.getBytes(StandardCharsets.UTF_8);
+                ensure(channel, buffer, 9 + name.length);
+                buffer.put(VokabelBinaryReader.SET).putInt(sId).putInt(name.length).put(name);
+            }
+            byte[] o = original.getBytes(StandardCharsets.UTF_8);
+            byte[] t = translation.getBytes(StandardCharsets.UTF_8);
+            ensure(channel, buffer, 13 + o.length + t.length);
+            buffer.put(VokabelBinaryReader.VOKABEL).putInt(id).putInt(o.length).put(o).putInt(t.length).put(t);
+        });
+        ensure(channel, buffer, 9);
+        buffer.put(VokabelBinaryReader.END).putLong(rows);
+        drain(channel, buffer);
+        return rows;
+    }
+
+    private static void ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) drain(channel, buffer);
+        if (buffer.remaining() < bytes) {
+            throw new IOException("Datensatz zu groß für den Exportpuffer: " + bytes + " Bytes");
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
+
+/**
+ * Cursor over a memory-mapped {@code .vokb} file. The accessors return read-only
+ * {@link ByteBuffer} views into the mapping, so records are read without copying;
+ * use {@link #text(ByteBuffer)} to decode a view when a String is needed.
+ */
+class VokabelBinaryReader implements Closeable {
+    static final byte SET = 'S', VOKABEL = 'V', END = 'E';
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private int setId, id;
+    private long declaredCount = -1;
+    private ByteBuffer setName, original, translation;
+
+    public VokabelBinaryReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Datei zu groß: " + file);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asReadOnlyBuffer();
+            if (buffer.remaining() < 6 || buffer.getInt() != VokabelExporter.MAGIC) {
+                throw new IOException("Keine Vokabeltrainer-Exportdatei: " + file);
+            }
+            short version = buffer.getShort();
+            if (version != VokabelExporter.VERSION) throw new IOException("Unbekannte Version: " + version);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Advances to the next record and returns its tag, or {@link #END} once the file is exhausted. */
+    public byte next() throws IOException {
+        if (!buffer.hasRemaining()) return END;
+        try {
+            byte type = buffer.get();
+            switch (type) {
+                case SET:
+                    setId = buffer.getInt();
+                    setName = slice();
+                    return type;
+                case VOKABEL:
+                    id = buffer.getInt();
+                    original = slice();
+                    translation = slice();
+                    return type;
+                case END:
+                    declaredCount = buffer.getLong();
+                    return type;
+                default:
+                    throw new IOException("Ungültiger Datensatz an Position " + (buffer.position() - 1));
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Exportdatei ist abgeschnitten", e);
+        }
+    }
+
+    private ByteBuffer slice() {
+        int length = buffer.getInt();
+        ByteBuffer view = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return view;
+    }
+
+    public int setId() { return setId; }
+    public ByteBuffer setName() { return setName; }
+    public int id() { return id; }
+    public ByteBuffer original() { return original; }
+    public ByteBuffer translation() { return translation; }
+    /** Vokabel count from the trailer, or -1 before the trailer has been read. */
+    public long declaredCount() { return declaredCount; }
+    public long position() { return buffer.position(); }
+    public long size() { return buffer.limit(); }
+
+    public static String text(ByteBuffer view) {
+        return StandardCharsets.UTF_8.decode(view.duplicate()).toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
+
+/**
+ * Table model that only holds the pages of a set the viewport actually shows.
+ * Pages are fetched off the EDT via keyset pagination on {@code id} and kept in a small LRU cache,
+ * so memory stays flat regardless of the set size.
+ */
+class VokabelTableModel extends AbstractTableModel {
+    static final int PAGE_SIZE = 200;
+    static final int MAX_CACHED_PAGES = 16;
+    // Start keys are two integers each, so far more of them are kept than pages
+    static final int MAX_PAGE_START_KEYS = 1024;
+    private static final String[] COLUMN_NAMES = {"ID", "Original", "Übersetzung"};
+    private static final String PLACEHOLDER = "…";
+    private static final LatencyHistogram LOAD_TIME = Metrics.histogram("table.load");
+    private static final LatencyHistogram PAGE_TIME = Metrics.histogram("table.page");
+
+    private final AsyncDatabase db;
+    private final Map<Integer, List<Vokabel>> pages = new LinkedHashMap<Integer, List<Vokabel>>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Vokabel>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // page index -> last id of the previous page, learned while scrolling (LRU); page 0 starts at 0, see startKey
+    private final Map<Integer, Integer> pageStartKeys = new LinkedHashMap<Integer, Integer>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+            return size() > MAX_PAGE_START_KEYS;
+        }
+    };
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private int setId = -1, rowCount = 0, generation = 0;
+    // False while the row count of a new set is still loading; changes before that are already in it
+    private boolean counted = false;
+    private volatile int lastRequestedPage = 0;
+
+    private final VokabelEditQueue edits;
+
+    public VokabelTableModel(AsyncDatabase db) {
+        this(db, new VokabelEditQueue(db, VokabelEditQueue.DEFAULT_IDLE_MILLIS));
+    }
+
+    public VokabelTableModel(AsyncDatabase db, VokabelEditQueue edits) {
+        this.db = db;
+        this.edits = edits;
+        db.addChangeListener(this::applyChanges);
+    }
+
+    public VokabelEditQueue getEdits() { return edits; }
+
+    public CompletableFuture<Integer> load(int setId) {
+        int gen = reset(setId);
+        long start = System.nanoTime();
+        UiEvent event = UiEvent.begin("table.load");
+        return db.read(d -> d.countVokabeln(setId)).thenApplyAsync(count -> {
+            if (gen == generation) {
+                rowCount = count;
+                counted = true;
+                fireTableDataChanged();
+                LOAD_TIME.recordSince(start);
+                event.finish("set " + setId, count);
+            }
+            return count;
+        }, AsyncDatabase.EDT);
+    }
+
+    public void clear() {
+        reset(-1);
+    }
+
+    private int reset(int newSetId) {
+        setId = newSetId;
+        rowCount = 0;
+        counted = false;
+        pages.clear();
+        pageStartKeys.clear();
+        loadingPages.clear();
+        fireTableDataChanged();
+        return ++generation;
+    }
+
+    /**
+     * Applies committed row changes in place: one insert/delete/update event per change, and only
+     * the cached pages from the changed one onward are dropped, so the cost does not grow with the set.
+     * A row outside the cached pages has no known position; then the table is told that everything
+     * from there on changed.
+     */
+    void applyChanges(List<VokabelChange> changes) {
+        for (VokabelChange change : changes) {
+            if (change.getSetId() != setId || !counted) continue;
+            int id = change.getVokabel().getId(), row;
+            switch (change.getType()) {
+                case INSERTED:
+                    row = locate(id, true);
+                    if (row < 0) {
+                        shiftUncached(id, 1);
+                        break;
+                    }
+                    shiftPage(row, change.getVokabel());
+                    rowCount++;
+                    fireTableRowsInserted(row, row);
+                    break;
+                case DELETED:
+                    row = locate(id, false);
+                    if (row < 0) {
+                        shiftUncached(id, -1);
+                        break;
+                    }
+                    shiftPage(row, null);
+                    rowCount--;
+                    fireTableRowsDeleted(row, row);
+                    break;
+                case UPDATED:
+                    // An edit made after this one was saved is still pending and wins
+                    replaceRow(edits.overlay(change.getVokabel()));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Inserts {@code inserted} at {@code row}, or removes the row there if it is {@code null}, within
+     * the cached page. Every later page moves by one row, so those are dropped and refetched on demand.
+     */
+    private void shiftPage(int row, Vokabel inserted) {
+        int pageIndex = row / PAGE_SIZE, index = row % PAGE_SIZE;
+        pages.keySet().removeIf(p -> p > pageIndex);
+        pageStartKeys.keySet().removeIf(p -> p > pageIndex);
+        // In-flight fetches may return rows from before the change
+        loadingPages.clear();
+        generation++;
+
+        List<Vokabel> cached = pages.get(pageIndex);
+        if (cached == null) {
+            // Appended as the first row of a new last page: that page is complete already
+            if (inserted != null && index == 0 && row == rowCount) pages.put(pageIndex, new ArrayList<>(List.of(inserted)));
+            return;
+        }
+        List<Vokabel> page = new ArrayList<>(cached);
+        if (inserted != null && index <= page.size()) {
+            page.add(index, inserted);
+            if (page.size() > PAGE_SIZE) page.remove(PAGE_SIZE);
+        } else if (inserted == null && index < page.size()) {
+            page.remove(index);
+        } else {
+            pages.remove(pageIndex);
+            return;
+        }
+        pages.put(pageIndex, page);
+        if (page.size() == PAGE_SIZE) pageStartKeys.put(pageIndex + 1, page.get(PAGE_SIZE - 1).getId());
+    }
+
+    /**
+     * The row of vokabel {@code id}, or the row it goes to if {@code inserted}, by binary search in
+     * the cached pages; -1 if no cached page covers the id. Rows are in id order, so a page covers
+     * the ids after the last id of the page before it up to its own last id.
+     */
+    private int locate(int id, boolean inserted) {
+        if (inserted && rowCount == 0) return 0;
+        for (Map.Entry<Integer, List<Vokabel>> entry : pages.entrySet()) {
+            List<Vokabel> page = entry.getValue();
+            if (page.isEmpty()) continue;
+            int first = entry.getKey() * PAGE_SIZE;
+            int low = 0, high = page.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = page.get(mid).getId();
+                if (midId < id) low = mid + 1;
+                else if (midId > id) high = mid - 1;
+                else return inserted ? -1 : first + mid;
+            }
+            if (!inserted) continue;
+            if (low > 0 && low < page.size()) return first + low;
+            Integer after = startKey(entry.getKey());
+            if (low == 0 && after != null && after < id) return first;
+            // Past the last row of the last page: appended
+            if (low == page.size() && first + page.size() == rowCount) return rowCount;
+        }
+        return -1;
+    }
+
+    /**
+     * Row count change for vokabel {@code id} outside the cached pages. Pages and start keys that
+     * end before the id keep their rows; everything after is dropped and fetched again.
+     */
+    private void shiftUncached(int id, int delta) {
+        pages.values().removeIf(page -> page.isEmpty() || page.get(page.size() - 1).getId() >= id);
+        pageStartKeys.values().removeIf(after -> after >= id);
+        loadingPages.clear();
+        generation++;
+        rowCount = Math.max(0, rowCount + delta);
+        fireTableDataChanged();
+    }
+
+    private void replaceRow(Vokabel vokabel) {
+        int row = findRow(vokabel.getId());
+        if (row < 0) return;
+        List<Vokabel> page = new ArrayList<>(pages.get(row / PAGE_SIZE));
+        page.set(row % PAGE_SIZE, vokabel);
+        pages.put(row / PAGE_SIZE, page);
+        fireTableRowsUpdated(row, row);
+    }
+
+    /** The row showing vokabel {@code id}, or -1 if it is not in a cached page. */
+    public int findRow(int id) {
+        for (Map.Entry<Integer, List<Vokabel>> entry : pages.entrySet()) {
+            List<Vokabel> page = entry.getValue();
+            int low = 0, high = page.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = page.get(mid).getId();
+                if (midId < id) low = mid + 1;
+                else if (midId > id) high = mid - 1;
+                else return entry.getKey() * PAGE_SIZE + mid;
+            }
+        }
+        return -1;
+    }
+
+    /** The row's vokabel, or {@code null} while its page is still loading. */
+    public Vokabel getVokabelAt(int row) {
+        List<Vokabel> page = pages.get(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return page != null && index < page.size() ? page.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() { return rowCount; }
+
+    @Override
+    public int getColumnCount() { return COLUMN_NAMES.length; }
+
+    @Override
+    public String getColumnName(int column) { return COLUMN_NAMES[column]; }
+
+    /** Original and translation can be edited in place once the row is loaded. */
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column > 0 && getVokabelAt(row) != null;
+    }
+
+    /** Shows the edit right away and hands it to the write-behind queue. */
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        Vokabel v = getVokabelAt(row);
+        String text = value == null ? "" : value.toString().trim();
+        if (v == null || column == 0 || text.isEmpty()) return;
+        Vokabel edited = column == 1
+                ? new Vokabel(v.getId(), text, v.getTranslation())
+                : new Vokabel(v.getId(), v.getOriginal(), text);
+        if (edited.getOriginal().equals(v.getOriginal()) && edited.getTranslation().equals(v.getTranslation())) return;
+        List<Vokabel> page = new ArrayList<>(pages.get(row / PAGE_SIZE));
+        page.set(row % PAGE_SIZE, edited);
+        pages.put(row / PAGE_SIZE, page);
+        fireTableCellUpdated(row, column);
+        edits.add(edited);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Vokabel v = getVokabelAt(row);
+        if (v == null) {
+            requestPage(row / PAGE_SIZE);
+            return column == 0 ? null : PLACEHOLDER;
+        }
+        switch (column) {
+            case 0: return v.getId();
+            case 1: return v.getOriginal();
+            default: return v.getTranslation();
+        }
+    }
+
+    /** The last id before {@code page}, or {@code null} if it is not known and the page is fetched by offset. */
+    private Integer startKey(int page) {
+        return page == 0 ? Integer.valueOf(0) : pageStartKeys.get(page);
+    }
+
+    private void requestPage(int page) {
+        lastRequestedPage = page;
+        if (!loadingPages.add(page)) return;
+
+        int gen = generation, currentSetId = setId;
+        Integer afterId = startKey(page);
+        long start = System.nanoTime();
+        UiEvent event = UiEvent.begin("table.page");
+        db.read(d -> {
+            // Skip pages the user has already scrolled far past
+            if (Math.abs(page - lastRequestedPage) > MAX_CACHED_PAGES / 2) return null;
+            return afterId != null
+                    ? d.getVokabelPage(currentSetId, afterId, PAGE_SIZE)
+                    : d.getVokabelPageAt(currentSetId, page * PAGE_SIZE, PAGE_SIZE);
+        }).whenCompleteAsync((rows, error) -> {
+            if (gen != generation) return;
+            loadingPages.remove(page);
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+            if (rows == null) return;
+            rows = edits.overlay(rows);
+            pages.put(page, rows);
+            if (!rows.isEmpty()) pageStartKeys.put(page + 1, rows.get(rows.size() - 1).getId());
+            int first = page * PAGE_SIZE;
+            int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+            if (last >= first) fireTableRowsUpdated(first, last);
+            PAGE_TIME.recordSince(start);
+            event.finish("set " + currentSetId + ", Seite " + page, rows.size());
+        }, AsyncDatabase.EDT);
+    }
+}
+
+/**
+ * Write-behind queue for edits made in the table. Edits are merged per vokabel (only the latest
+ * text is kept) and saved together in one transaction once editing has been idle for a moment,
+ * or earlier via {@link #flush()} (switching sets or panels, closing the window). Confined to the EDT.
+ */
+class VokabelEditQueue {
+    static final int DEFAULT_IDLE_MILLIS = 750;
+
+    private final AsyncDatabase db;
+    private final Map<Integer, Vokabel> pending = new LinkedHashMap<>();
+    // Handed to the database but not yet committed
+    private final Map<Integer, Vokabel> saving = new HashMap<>();
+    private final javax.swing.Timer idleTimer;
+    // Flushes run one after the other, so an older edit can never overwrite a newer one
+    private CompletableFuture<Integer> lastFlush = CompletableFuture.completedFuture(0);
+    private Consumer<Throwable> errorHandler = Throwable::printStackTrace;
+
+    public VokabelEditQueue(AsyncDatabase db, int idleMillis) {
+        this.db = db;
+        this.idleTimer = new javax.swing.Timer(idleMillis, e -> flush());
+        idleTimer.setRepeats(false);
+    }
+
+    /** Called on the EDT when saving fails; the edits of that flush are lost. */
+    public void setErrorHandler(Consumer<Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    public void add(Vokabel edited) {
+        pending.put(edited.getId(), edited);
+        idleTimer.restart();
+    }
+
+    public int getPendingCount() { return pending.size(); }
+
+    /** The pending edit of {@code vokabel}, or {@code vokabel} itself if there is none. */
+    public Vokabel overlay(Vokabel vokabel) {
+        Vokabel edited = pending.get(vokabel.getId());
+        if (edited == null) edited = saving.get(vokabel.getId());
+        return edited != null ? edited : vokabel;
+    }
+
+    /** {@code rows} with pending edits applied, for pages fetched before those edits are saved. */
+    public List<Vokabel> overlay(List<Vokabel> rows) {
+        if (pending.isEmpty() && saving.isEmpty()) return rows;
+        List<Vokabel> result = new ArrayList<>(rows.size());
+        for (Vokabel row : rows) result.add(overlay(row));
+        return result;
+    }
+
+    /** Saves all pending edits; completes with the number of rows updated once they are committed. */
+    public CompletableFuture<Integer> flush() {
+        idleTimer.stop();
+        if (pending.isEmpty()) return lastFlush;
+        List<Vokabel> batch = new ArrayList<>(pending.values());
+        pending.clear();
+        for (Vokabel edit : batch) saving.put(edit.getId(), edit);
+        CompletableFuture<Integer> flushed = lastFlush
+                .handle((count, error) -> null)
+                .thenCompose(ignored -> db.updateVokabeln(batch));
+        flushed.whenCompleteAsync((count, error) -> {
+            for (Vokabel edit : batch) saving.remove(edit.getId(), edit);
+            if (error != null) errorHandler.accept(error);
+        }, AsyncDatabase.EDT);
+        lastFlush = flushed;
+        return flushed;
+    }
+}
+
+/**
+ * What to do when a vokabel's normalized original already exists in its set:
+ * drop the new one, fold its translation into the existing row as a synonym, or store both.
+ */
+enum DuplicatePolicy {
+    SKIP, MERGE, KEEP_BOTH;
+
+    static DuplicatePolicy fromConfig(AppConfig config) {
+        try {
+            return valueOf(config.getKeyword("duplicates.policy", MERGE.name()));
+        } catch (IllegalArgumentException e) {
+            return MERGE;
+        }
+    }
+
+    /** Normalized duplicate key of an original (same folding as the answer matcher). */
+    static String key(String original) {
+        return FuzzyAnswerMatcher.fold(original).toString();
+    }
+
+    /**
+     * The key to store in {@code norm_key}: {@code null} for originals that fold to nothing (only
+     * punctuation), so they never count as duplicates of each other.
+     */
+    static String storedKey(String original) {
+        String key = key(original);
+        return key.isEmpty() ? null : key;
+    }
+
+    /** Appends every addition that is not already one of the ';'-separated variants. */
+    static String mergeTranslations(String translation, List<String> additions) {
+        Set<String> variants = new HashSet<>();
+        for (String part : translation.split("[;,/]")) variants.add(key(part));
+        StringBuilder merged = new StringBuilder(translation);
+        for (String addition : additions) {
+            for (String part : addition.split("[;,/]")) {
+                String trimmed = part.trim();
+                if (!trimmed.isEmpty() && variants.add(key(trimmed))) merged.append("; ").append(trimmed);
+            }
+        }
+        return merged.toString();
+    }
+}
+
+/** Counts of what a write did with duplicates, plus a few examples for the user. */
+class DuplicateReport {
+    private static final int MAX_EXAMPLES = 10;
+
+    private long inserted, skipped, merged, keptBoth;
+    private int lastInsertedId = -1;
+    private final List<String> examples = new ArrayList<>();
+
+    void inserted() { inserted++; }
+
+    void skipped(String original, String translation) {
+        skipped++;
+        example("übersprungen", original, translation);
+    }
+
+    void merged(String original, String translation) {
+        merged++;
+        example("zusammengeführt", original, translation);
+    }
+
+    void keptBoth(String original, String translation) {
+        keptBoth++;
+        example("doppelt behalten", original, translation);
+    }
+
+    private void example(String action, String original, String translation) {
+        if (examples.size() < MAX_EXAMPLES) examples.add(original + " → " + translation + " (" + action + ")");
+    }
+
+    public void add(DuplicateReport other) {
+        inserted += other.inserted;
+        skipped += other.skipped;
+        merged += other.merged;
+        keptBoth += other.keptBoth;
+        for (String example : other.examples) {
+            if (examples.size() < MAX_EXAMPLES) examples.add(example);
+        }
+    }
+
+    public long getInserted() { return inserted; }
+    public long getSkipped() { return skipped; }
+    public long getMerged() { return merged; }
+    public long getKeptBoth() { return keptBoth; }
+    public long getDuplicates() { return skipped + merged + keptBoth; }
+    public List<String> getExamples() { return examples; }
+    public int getLastInsertedId() { return lastInsertedId; }
+    void setLastInsertedId(int id) { lastInsertedId = id; }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "✓ Neu: %,d\n⏭ Übersprungen: %,d\n🔗 Zusammengeführt: %,d\n➕ Doppelt behalten: %,d",
+                inserted, skipped, merged, keptBoth));
+        if (!examples.isEmpty()) {
+            sb.append("\n\nBeispiele:");
+            for (String example : examples) sb.append("\n  • ").append(example);
+        }
+        return sb.toString();
+    }
+}
+
+/**
+ * Decides whether a typed answer matches a vokabel. Expected answers are prepared once when a
+ * quiz loads, so checking an answer only normalizes the input and compares it to the variants.
+ */
+interface AnswerMatcher {
+    enum Verdict { CORRECT, TYPO, WRONG }
+
+    /** Precomputed, matcher-specific form of one expected answer. */
+    interface PreparedAnswer {
+        String getText();
+    }
+
+    PreparedAnswer prepare(String expected);
+
+    Verdict match(PreparedAnswer expected, String answer);
+
+    /** Prepared {original, translation} per vokabel id. */
+    default Map<Integer, PreparedAnswer[]> prepareAll(Collection<Vokabel> vokabeln) {
+        Map<Integer, PreparedAnswer[]> prepared = new HashMap<>(vokabeln.size() * 2);
+        for (Vokabel v : vokabeln) {
+            prepared.put(v.getId(), new PreparedAnswer[]{prepare(v.getOriginal()), prepare(v.getTranslation())});
+        }
+        return prepared;
+    }
+
+    static AnswerMatcher fromConfig(AppConfig config) {
+        int maxTypos = config.getInt("quiz.max_typos", 2);
+        boolean stripArticles = Boolean.parseBoolean(config.getString("quiz.strip_articles", "true"));
+        return new FuzzyAnswerMatcher(maxTypos, stripArticles);
+    }
+}
+
+/**
+ * Tolerant matching: Unicode NFKD with diacritics folded, case and punctuation ignored, optional
+ * leading articles, synonyms separated by ';' ',' or '/', and a small number of typos
+ * (Damerau/OSA distance, bounded with early exit and no allocation per comparison).
+ */
+class FuzzyAnswerMatcher implements AnswerMatcher {
+    private static final Set<String> ARTICLES = new HashSet<>(Arrays.asList(
+            "der", "die", "das", "den", "dem", "des", "ein", "eine", "einen", "einem", "einer",
+            "the", "a", "an", "to", "le", "la", "les", "l", "un", "une", "el", "los", "las", "una", "il", "lo"));
+
+    static class Prepared implements PreparedAnswer {
+        final String text;
+        final String[] variants;
+
+        Prepared(String text, String[] variants) {
+            this.text = text;
+            this.variants = variants;
+        }
+
+        @Override
+        public String getText() { return text; }
+    }
+
+    private final int maxTypos;
+    private final boolean stripArticles;
+    // Three DP rows per thread, grown on demand and reused for every comparison
+    private final ThreadLocal<int[][]> rows = ThreadLocal.withInitial(() -> new int[3][32]);
+
+    public FuzzyAnswerMatcher(int maxTypos, boolean stripArticles) {
+        this.maxTypos = Math.max(0, maxTypos);
+        this.stripArticles = stripArticles;
+    }
+
+    @Override
+    public PreparedAnswer prepare(String expected) {
+        LinkedHashSet<String> variants = new LinkedHashSet<>();
+        variants.add(normalize(expected));
+        for (String part : expected.split("[;,/]")) {
+            String normalized = normalize(part);
+            if (!normalized.isEmpty()) variants.add(normalized);
+        }
+        return new Prepared(expected, variants.toArray(new String[0]));
+    }
+
+    @Override
+    public Verdict match(PreparedAnswer expected, String answer) {
+        String[] variants = ((Prepared) expected).variants;
+        String input = normalize(answer);
+        if (input.isEmpty()) return Verdict.WRONG;
+        for (String variant : variants) {
+            if (variant.equals(input)) return Verdict.CORRECT;
+        }
+        for (String variant : variants) {
+            int allowed = allowedTypos(variant.length());
+            if (allowed > 0 && distance(variant, input, allowed) <= allowed) return Verdict.TYPO;
+        }
+        return Verdict.WRONG;
+    }
+
+    int allowedTypos(int length) {
+        return Math.min(maxTypos, length <= 4 ? 0 : length <= 8 ? 1 : 2);
+    }
+
+    String normalize(String text) {
+        StringBuilder sb = fold(text);
+        if (stripArticles) {
+            int firstSpace = sb.indexOf(" ");
+            if (firstSpace > 0 && ARTICLES.contains(sb.substring(0, firstSpace))) sb.delete(0, firstSpace + 1);
+        }
+        return sb.toString();
+    }
+
+    /** NFKD with combining marks dropped, lower case, punctuation collapsed to single spaces. */
+    static StringBuilder fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                if (c == 'ß') sb.append("ss");
+                else sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int length = sb.length();
+        if (length > 0 && sb.charAt(length - 1) == ' ') sb.setLength(length - 1);
+        return sb;
+    }
+
+    /** Optimal-string-alignment distance, or {@code max + 1} as soon as it must exceed {@code max}. */
+    int distance(String a, String b, int max) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[][] buffers = rows.get();
+        if (buffers[0].length <= m) {
+            buffers = new int[3][m + 1];
+            rows.set(buffers);
+        }
+        int[] previous2 = buffers[0], previous = buffers[1], current = buffers[2];
+        for (int j = 0; j <= m; j++) previous[j] = j;
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                if (value < rowMin) rowMin = value;
+            }
+            if (rowMin > max) return max + 1;
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+}
+
+/** Spaced-repetition state of one vokabel. Times are epoch milliseconds. */
+class ReviewState {
+    private final Vokabel vokabel;
+    private double ease, intervalDays;
+    private int repetitions, lapses;
+    private long dueAt, lastReview;
+
+    public ReviewState(Vokabel vokabel, double ease, double intervalDays, int repetitions, int lapses, long dueAt) {
+        this.vokabel = vokabel;
+        this.ease = ease;
+        this.intervalDays = intervalDays;
+        this.repetitions = repetitions;
+        this.lapses = lapses;
+        this.dueAt = dueAt;
+    }
+
+    public static ReviewState newCard(Vokabel vokabel, long now) {
+        return new ReviewState(vokabel, SpacedRepetitionScheduler.INITIAL_EASE, 0, 0, 0, now);
+    }
+
+    public ReviewState copy() {
+        ReviewState copy = new ReviewState(vokabel, ease, intervalDays, repetitions, lapses, dueAt);
+        copy.lastReview = lastReview;
+        return copy;
+    }
+
+    public Vokabel getVokabel() { return vokabel; }
+    public double getEase() { return ease; }
+    public double getIntervalDays() { return intervalDays; }
+    public int getRepetitions() { return repetitions; }
+    public int getLapses() { return lapses; }
+    public long getDueAt() { return dueAt; }
+    public long getLastReview() { return lastReview; }
+
+    void update(double ease, double intervalDays, int repetitions, int lapses, long dueAt, long lastReview) {
+        this.ease = ease;
+        this.intervalDays = intervalDays;
+        this.repetitions = repetitions;
+        this.lapses = lapses;
+        this.dueAt = dueAt;
+        this.lastReview = lastReview;
+    }
+}
+
+/** SM-2 scheduling; answer quality is on the usual 0..5 scale (below 3 counts as a lapse). */
+class SpacedRepetitionScheduler {
+    static final double INITIAL_EASE = 2.5;
+    static final double MIN_EASE = 1.3;
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    // Lapsed cards come back within the same session after this delay
+    static final long RELEARN_DELAY_MILLIS = 60_000;
+
+    public static int quality(boolean correct) {
+        return correct ? 4 : 1;
+    }
+
+    public void review(ReviewState state, int quality, long now) {
+        double ease = Math.max(MIN_EASE, state.getEase() + 0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+        if (quality < 3) {
+            state.update(ease, 0, 0, state.getLapses() + 1, now + RELEARN_DELAY_MILLIS, now);
+            return;
+        }
+        int repetitions = state.getRepetitions() + 1;
+        double interval = repetitions == 1 ? 1 : repetitions == 2 ? 6 : Math.round(state.getIntervalDays() * ease);
+        state.update(ease, interval, repetitions, state.getLapses(), now + (long) (interval * DAY_MILLIS), now);
+    }
+}
+
+/** Cards of one session ordered by due time; picking the next card is O(log n). */
+class ReviewQueue {
+    // Cards due within this window are shown now rather than ending the session
+    static final long LEARN_AHEAD_MILLIS = 20 * 60_000;
+
+    private final PriorityQueue<ReviewState> queue = new PriorityQueue<>(
+            Comparator.comparingLong(ReviewState::getDueAt).thenComparingInt(r -> r.getVokabel().getId()));
+
+    public ReviewQueue(Collection<ReviewState> cards) {
+        queue.addAll(cards);
+    }
+
+    public void add(ReviewState state) {
+        queue.add(state);
+    }
+
+    /** Removes and returns the next card to show, or {@code null} if nothing is due. */
+    public ReviewState poll(long now) {
+        ReviewState head = queue.peek();
+        return head != null && head.getDueAt() <= now + LEARN_AHEAD_MILLIS ? queue.poll() : null;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
+
+/** One answered question, as written to the answer_log table. */
+class AnswerEvent {
+    private final long sessionId, answeredAt;
+    private final int vokabelId, setId, responseMillis;
+    private final boolean reverse;
+    private final AnswerMatcher.Verdict verdict;
+
+    public AnswerEvent(long sessionId, int vokabelId, int setId, boolean reverse, AnswerMatcher.Verdict verdict,
+                       int responseMillis, long answeredAt) {
+        this.sessionId = sessionId;
+        this.vokabelId = vokabelId;
+        this.setId = setId;
+        this.reverse = reverse;
+        this.verdict = verdict;
+        this.responseMillis = responseMillis;
+        this.answeredAt = answeredAt;
+    }
+
+    public long getSessionId() { return sessionId; }
+    public int getVokabelId() { return vokabelId; }
+    public int getSetId() { return setId; }
+    public boolean isReverse() { return reverse; }
+    public AnswerMatcher.Verdict getVerdict() { return verdict; }
+    public boolean isCorrect() { return verdict != AnswerMatcher.Verdict.WRONG; }
+    public int getResponseMillis() { return responseMillis; }
+    public long getAnsweredAt() { return answeredAt; }
+}
+
+/**
+ * Write-behind answer history. {@link #append} puts the event into a fixed-size ring buffer and
+ * returns; a background thread writes whatever has accumulated in one transaction once half the
+ * buffer is used or {@code answer_log.flush_millis} has passed. Slots are only freed after the
+ * commit, so at most {@code answer_log.max_unflushed} events can be lost in a crash. When the disk
+ * cannot keep up and the buffer is full, {@code append} drops the event and counts it instead of
+ * waiting, so answering never blocks and the bound still holds.
+ */
+class AnswerLog implements Closeable {
+    private final DatabaseManager db;
+    private final AnswerEvent[] ring;
+    private final int flushThreshold;
+    private final long flushNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final java.util.concurrent.locks.Condition work = lock.newCondition();
+    private final java.util.concurrent.locks.Condition flushed = lock.newCondition();
+    // head: oldest unwritten event; size: unwritten events, of which the first inFlight are being written
+    private int head, size, inFlight;
+    private long appended, written, dropped, failedWrites;
+    private SQLException lastError;
+    private boolean flushRequested, closed;
+    private final Thread writer;
+
+    public AnswerLog(DatabaseManager db, AppConfig config) {
+        this.db = db;
+        this.ring = new AnswerEvent[Math.max(2, config.getInt("answer_log.max_unflushed", 10_000))];
+        this.flushThreshold = ring.length / 2;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("answer_log.flush_millis", 500));
+        this.writer = new Thread(this::writeLoop, "Vokabeltrainer-AnswerLog");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Queues an event; returns {@code false} if the log is closed or the event was dropped because the buffer is full. */
+    public boolean append(AnswerEvent event) {
+        lock.lock();
+        try {
+            if (closed) return false;
+            if (size == ring.length) {
+                dropped++;
+                return false;
+            }
+            ring[(head + size) % ring.length] = event;
+            size++;
+            appended++;
+            if (size - inFlight >= flushThreshold) work.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every event appended so far is committed. Fails with the writer's error as soon
+     * as a write attempt fails, and with an {@link SQLTimeoutException} after {@code timeoutMillis}.
+     */
+    public void flush(long timeoutMillis) throws SQLException {
+        lock.lock();
+        try {
+            long target = appended, failuresBefore = failedWrites;
+            long left = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            flushRequested = true;
+            work.signal();
+            while (written < target) {
+                if (failedWrites != failuresBefore) {
+                    throw new SQLException("Antwortprotokoll konnte nicht geschrieben werden", lastError);
+                }
+                if (!writer.isAlive()) throw new SQLException("Antwortprotokoll ist geschlossen");
+                if (left <= 0) throw new SQLTimeoutException("Antwortprotokoll nach " + timeoutMillis + " ms nicht geschrieben");
+                left = flushed.awaitNanos(left);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Warten auf das Antwortprotokoll unterbrochen", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWrittenCount() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Events {@link #append} turned away because the buffer was full. */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Writes what is left and stops the writer thread. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            work.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            List<AnswerEvent> batch;
+            lock.lock();
+            try {
+                long deadline = System.nanoTime() + flushNanos;
+                while (!closed && !flushRequested && size < flushThreshold) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) break;
+                    work.awaitNanos(left);
+                }
+                flushRequested = false;
+                if (size == 0) {
+                    flushed.signalAll();
+                    if (closed) return;
+                    continue;
+                }
+                inFlight = size;
+                batch = new ArrayList<>(inFlight);
+                for (int i = 0; i < inFlight; i++) batch.add(ring[(head + i) % ring.length]);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            SQLException error = null;
+            try {
+                db.insertAnswerEvents(batch);
+            } catch (SQLException e) {
+                // Keep the events and retry; appends are dropped once the buffer is full
+                e.printStackTrace();
+                error = e;
+            }
+            boolean ok = error == null;
+
+            lock.lock();
+            try {
+                if (ok) {
+                    for (int i = 0; i < inFlight; i++) ring[(head + i) % ring.length] = null;
+                    head = (head + inFlight) % ring.length;
+                    size -= inFlight;
+                    written += inFlight;
+                } else {
+                    failedWrites++;
+                    lastError = error;
+                }
+                flushed.signalAll();
+                inFlight = 0;
+                if (!ok && closed) return;
+            } finally {
+                lock.unlock();
+            }
+            if (!ok) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
+
+/**
+ * Folds a batch of answer events into the aggregate tables (per vokabel, per set, per day).
+ * The batch is summed up in memory first, so each touched row gets one upsert no matter how
+ * many answers it had; the cost depends on the batch, never on how long the history is.
+ */
+class AnswerStatistics {
+    private static final String UPSERT_VOKABEL =
+            "INSERT INTO vokabel_stats (vokabel_id, set_id, attempts, correct, typos, streak, best_streak, " +
+            "total_response_ms, last_answered_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT(vokabel_id) DO UPDATE SET set_id = excluded.set_id, " +
+            "attempts = attempts + excluded.attempts, correct = correct + excluded.correct, " +
+            "typos = typos + excluded.typos, " +
+            // All answers right: the streak continues; otherwise it restarts after the last wrong one
+            "streak = CASE WHEN ? THEN streak + excluded.streak ELSE excluded.streak END, " +
+            "best_streak = MAX(best_streak, excluded.best_streak, streak + ?), " +
+            "total_response_ms = total_response_ms + excluded.total_response_ms, " +
+            "last_answered_at = MAX(last_answered_at, excluded.last_answered_at)";
+    private static final String UPSERT_SET =
+            "INSERT INTO set_stats (set_id, attempts, correct, typos, total_response_ms, last_answered_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(set_id) DO UPDATE SET " +
+            "attempts = attempts + excluded.attempts, correct = correct + excluded.correct, " +
+            "typos = typos + excluded.typos, total_response_ms = total_response_ms + excluded.total_response_ms, " +
+            "last_answered_at = MAX(last_answered_at, excluded.last_answered_at)";
+    private static final String UPSERT_DAY =
+            "INSERT INTO daily_stats (day, set_id, attempts, correct, typos, total_response_ms) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(day, set_id) DO UPDATE SET " +
+            "attempts = attempts + excluded.attempts, correct = correct + excluded.correct, " +
+            "typos = typos + excluded.typos, total_response_ms = total_response_ms + excluded.total_response_ms";
+
+    static class Totals {
+        final int setId;
+        long attempts, correct, typos, responseMillis, lastAnsweredAt;
+        // Streak bookkeeping for vokabeln: correct answers before the first wrong one, after the last one, longest run
+        int leading, trailing, longest;
+        boolean sawWrong;
+
+        Totals(int setId) {
+            this.setId = setId;
+        }
+
+        void add(AnswerEvent event) {
+            attempts++;
+            responseMillis += event.getResponseMillis();
+            lastAnsweredAt = Math.max(lastAnsweredAt, event.getAnsweredAt());
+            if (event.getVerdict() == AnswerMatcher.Verdict.TYPO) typos++;
+            if (event.isCorrect()) {
+                correct++;
+                trailing++;
+                if (!sawWrong) leading++;
+                longest = Math.max(longest, trailing);
+            } else {
+                sawWrong = true;
+                trailing = 0;
+            }
+        }
+    }
+
+    static long epochDay(long millis, java.time.ZoneId zone) {
+        return java.time.Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    static void apply(DatabaseManager.PooledConnection c, List<AnswerEvent> events) throws SQLException {
+        if (events.isEmpty()) return;
+        java.time.ZoneId zone = java.time.ZoneId.systemDefault();
+        Map<Integer, Totals> byVokabel = new HashMap<>();
+        Map<Integer, Totals> bySet = new HashMap<>();
+        Map<Long, Totals> byDay = new HashMap<>();
+        Map<Long, Long> dayOfKey = new HashMap<>();
+        for (AnswerEvent event : events) {
+            byVokabel.computeIfAbsent(event.getVokabelId(), id -> new Totals(event.getSetId())).add(event);
+            bySet.computeIfAbsent(event.getSetId(), Totals::new).add(event);
+            long day = epochDay(event.getAnsweredAt(), zone);
+            long key = (day << 32) | (event.getSetId() & 0xFFFFFFFFL);
+            dayOfKey.putIfAbsent(key, day);
+            byDay.computeIfAbsent(key, k -> new Totals(event.getSetId())).add(event);
+        }
+
+        PreparedStatement vokabel = c.prepare(UPSERT_VOKABEL);
+        for (Map.Entry<Integer, Totals> entry : byVokabel.entrySet()) {
+            Totals t = entry.getValue();
+            vokabel.setInt(1, entry.getKey());
+            vokabel.setInt(2, t.setId);
+            vokabel.setLong(3, t.attempts);
+            vokabel.setLong(4, t.correct);
+            vokabel.setLong(5, t.typos);
+            vokabel.setInt(6, t.trailing);
+            vokabel.setInt(7, t.longest);
+            vokabel.setLong(8, t.responseMillis);
+            vokabel.setLong(9, t.lastAnsweredAt);
+            vokabel.setBoolean(10, !t.sawWrong);
+            vokabel.setInt(11, t.leading);
+            vokabel.addBatch();
+        }
+        vokabel.executeBatch();
+
+        PreparedStatement set = c.prepare(UPSERT_SET);
+        for (Map.Entry<Integer, Totals> entry : bySet.entrySet()) {
+            Totals t = entry.getValue();
+            set.setInt(1, entry.getKey());
+            set.setLong(2, t.attempts);
+            set.setLong(3, t.correct);
+            set.setLong(4, t.typos);
+            set.setLong(5, t.responseMillis);
+            set.setLong(6, t.lastAnsweredAt);
+            set.addBatch();
+        }
+        set.executeBatch();
+
+        PreparedStatement day = c.prepare(UPSERT_DAY);
+        for (Map.Entry<Long, Totals> entry : byDay.entrySet()) {
+            Totals t = entry.getValue();
+            day.setLong(1, dayOfKey.get(entry.getKey()));
+            day.setInt(2, t.setId);
+            day.setLong(3, t.attempts);
+            day.setLong(4, t.correct);
+            day.setLong(5, t.typos);
+            day.setLong(6, t.responseMillis);
+            day.addBatch();
+        }
+        day.executeBatch();
+    }
+}
+
+class SetStatistics {
+    private final int setId;
+    private final String name;
+    private final long attempts, correct, typos, totalResponseMillis, lastAnsweredAt;
+
+    public SetStatistics(int setId, String name, long attempts, long correct, long typos,
+                         long totalResponseMillis, long lastAnsweredAt) {
+        this.setId = setId;
+        this.name = name;
+        this.attempts = attempts;
+        this.correct = correct;
+        this.typos = typos;
+        this.totalResponseMillis = totalResponseMillis;
+        this.lastAnsweredAt = lastAnsweredAt;
+    }
+
+    public int getSetId() { return setId; }
+    public String getName() { return name; }
+    public long getAttempts() { return attempts; }
+    public long getCorrect() { return correct; }
+    public long getTypos() { return typos; }
+    public long getLastAnsweredAt() { return lastAnsweredAt; }
+    public double getAccuracy() { return attempts > 0 ? (double) correct / attempts : 0; }
+    public long getAverageResponseMillis() { return attempts > 0 ? totalResponseMillis / attempts : 0; }
+}
+
+class DailyStatistics {
+    private final long day, attempts, correct;
+
+    public DailyStatistics(long day, long attempts, long correct) {
+        this.day = day;
+        this.attempts = attempts;
+        this.correct = correct;
+    }
+
+    public long getDay() { return day; }
+    public long getAttempts() { return attempts; }
+    public long getCorrect() { return correct; }
+}
+
+class VokabelStatistics {
+    private final Vokabel vokabel;
+    private final long attempts, correct;
+    private final int streak, bestStreak;
+
+    public VokabelStatistics(Vokabel vokabel, long attempts, long correct, int streak, int bestStreak) {
+        this.vokabel = vokabel;
+        this.attempts = attempts;
+        this.correct = correct;
+        this.streak = streak;
+        this.bestStreak = bestStreak;
+    }
+
+    public Vokabel getVokabel() { return vokabel; }
+    public long getAttempts() { return attempts; }
+    public long getCorrect() { return correct; }
+    public int getStreak() { return streak; }
+    public int getBestStreak() { return bestStreak; }
+    public double getAccuracy() { return attempts > 0 ? (double) correct / attempts : 0; }
+}
+
+/**
+ * One quiz run, independent of Swing and the database. Moves READY → ASKING → ANSWERED → ASKING …
+ * → FINISHED; answers are checked against answers prepared up front, so a question never touches
+ * the database. Not thread-safe: every user (or simulated user) gets their own session.
+ */
+class QuizSession {
+    enum State { READY, ASKING, ANSWERED, FINISHED }
+
+    enum Direction { FORWARD, REVERSE, MIXED }
+
+    private final List<Vokabel> vokabeln;
+    private final Map<Integer, AnswerMatcher.PreparedAnswer[]> preparedAnswers;
+    private final AnswerMatcher matcher;
+    private final Direction direction;
+    private final Random random;
+    // Sparse Fisher-Yates shuffle: only positions touched so far are remembered, so a session over
+    // a shared list costs nothing up front and the list itself is never modified
+    private final Map<Integer, Integer> swapped = new HashMap<>();
+
+    private final ReviewQueue reviewQueue;
+    private final SpacedRepetitionScheduler scheduler;
+    private final LongSupplier clock;
+    private final Consumer<ReviewState> reviewListener;
+
+    private State state = State.READY;
+    private Vokabel current;
+    private ReviewState currentReview;
+    private boolean reverse;
+    private AnswerMatcher.Verdict lastVerdict;
+    private int position, correctCount, totalCount;
+    // Monotonic: how long the learner took from seeing the question to answering it
+    private static final LatencyHistogram ANSWER_LATENCY = Metrics.histogram("quiz.answer");
+    private long askedAt, lastResponseNanos;
+
+    private AnswerLog answerLog;
+    private int logSetId;
+    private final long id = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+
+    private QuizSession(List<Vokabel> vokabeln, ReviewQueue reviewQueue,
+                        Map<Integer, AnswerMatcher.PreparedAnswer[]> preparedAnswers, AnswerMatcher matcher,
+                        Direction direction, Random random, SpacedRepetitionScheduler scheduler,
+                        LongSupplier clock, Consumer<ReviewState> reviewListener) {
+        this.vokabeln = vokabeln;
+        this.reviewQueue = reviewQueue;
+        this.preparedAnswers = preparedAnswers;
+        this.matcher = matcher;
+        this.direction = direction;
+        this.random = random;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.reviewListener = reviewListener;
+    }
+
+    /** All vokabeln of a set in random order. The list is shared, not copied. */
+    static QuizSession of(List<Vokabel> vokabeln, Map<Integer, AnswerMatcher.PreparedAnswer[]> preparedAnswers,
+                          AnswerMatcher matcher, Direction direction, Random random) {
+        return new QuizSession(vokabeln, null, preparedAnswers, matcher, direction, random, null, null, null);
+    }
+
+    /**
+     * Due cards ordered by due time. Every answer is scheduled with SM-2 and a copy of the new
+     * state is handed to {@code reviewListener}; lapsed cards come back in the same session.
+     */
+    static QuizSession review(List<ReviewState> cards, Map<Integer, AnswerMatcher.PreparedAnswer[]> preparedAnswers,
+                              AnswerMatcher matcher, Direction direction, Random random,
+                              SpacedRepetitionScheduler scheduler, LongSupplier clock,
+                              Consumer<ReviewState> reviewListener) {
+        return new QuizSession(null, new ReviewQueue(cards), preparedAnswers, matcher, direction, random,
+                scheduler, clock, reviewListener);
+    }
+
+    /** Records every answer of this session to {@code log}. */
+    QuizSession logTo(AnswerLog log, int setId) {
+        this.answerLog = log;
+        this.logSetId = setId;
+        return this;
+    }
+
+    /** Moves to the next question; returns {@code false} once the session is finished. */
+    public boolean next() {
+        if (state == State.ASKING) throw new IllegalStateException("Die aktuelle Frage ist noch offen");
+        if (state == State.FINISHED) return false;
+        current = draw();
+        lastVerdict = null;
+        if (current == null) {
+            state = State.FINISHED;
+            return false;
+        }
+        position++;
+        reverse = direction == Direction.REVERSE || (direction == Direction.MIXED && random.nextBoolean());
+        state = State.ASKING;
+        askedAt = System.nanoTime();
+        return true;
+    }
+
+    private Vokabel draw() {
+        if (reviewQueue != null) {
+            currentReview = reviewQueue.poll(clock.getAsLong());
+            return currentReview != null ? currentReview.getVokabel() : null;
+        }
+        int i = position, size = vokabeln.size();
+        if (i >= size) return null;
+        int j = i + random.nextInt(size - i);
+        int picked = swapped.getOrDefault(j, j);
+        swapped.put(j, swapped.getOrDefault(i, i));
+        swapped.remove(i);
+        return vokabeln.get(picked);
+    }
+
+    public AnswerMatcher.Verdict answer(String typed) {
+        if (state != State.ASKING) throw new IllegalStateException("Es ist keine Frage offen");
+        AnswerMatcher.PreparedAnswer[] prepared = preparedAnswers.get(current.getId());
+        lastVerdict = matcher.match(prepared != null ? prepared[reverse ? 0 : 1] : matcher.prepare(getExpected()), typed);
+        boolean correct = lastVerdict != AnswerMatcher.Verdict.WRONG;
+        totalCount++;
+        if (correct) correctCount++;
+        lastResponseNanos = System.nanoTime() - askedAt;
+        ANSWER_LATENCY.record(lastResponseNanos);
+        if (answerLog != null) {
+            answerLog.append(new AnswerEvent(id, current.getId(), logSetId, reverse, lastVerdict,
+                    (int) Math.min(Integer.MAX_VALUE, lastResponseNanos / 1_000_000), System.currentTimeMillis()));
+        }
+        if (currentReview != null) {
+            scheduler.review(currentReview, SpacedRepetitionScheduler.quality(correct), clock.getAsLong());
+            reviewListener.accept(currentReview.copy());
+            // Lapsed cards are relearned later in the same session
+            if (!correct) reviewQueue.add(currentReview);
+        }
+        state = State.ANSWERED;
+        return lastVerdict;
+    }
+
+    /** Ends the session early. */
+    public void finish() {
+        state = State.FINISHED;
+        current = null;
+    }
+
+    public long getId() { return id; }
+    public State getState() { return state; }
+    public boolean isReview() { return reviewQueue != null; }
+    public Vokabel getCurrent() { return current; }
+    public boolean isReverse() { return reverse; }
+    public String getPrompt() { return reverse ? current.getTranslation() : current.getOriginal(); }
+    public String getExpected() { return reverse ? current.getOriginal() : current.getTranslation(); }
+    public AnswerMatcher.Verdict getLastVerdict() { return lastVerdict; }
+    public long getLastResponseNanos() { return lastResponseNanos; }
+    public int getPosition() { return position; }
+    public int getCorrectCount() { return correctCount; }
+    public int getTotalCount() { return totalCount; }
+
+    /** Number of questions in a plain quiz; review sessions grow while cards lapse, so -1 there. */
+    public int getSize() {
+        return vokabeln != null ? vokabeln.size() : -1;
+    }
+
+    /** Cards not asked yet (the open question is not counted). */
+    public int getRemaining() {
+        return reviewQueue != null ? reviewQueue.size() : vokabeln.size() - position;
+    }
+
+    public int getPercent() {
+        return totalCount > 0 ? (int) ((double) correctCount / totalCount * 100) : 0;
+    }
+}
+
+class VokabelSearchResult {
+    private final Vokabel vokabel;
+    private final int setId;
+    private final String setName;
+
+    public VokabelSearchResult(Vokabel vokabel, int setId, String setName) {
+        this.vokabel = vokabel;
+        this.setId = setId;
+        this.setName = setName;
+    }
+
+    public Vokabel getVokabel() { return vokabel; }
+    public int getSetId() { return setId; }
+    public String getSetName() { return setName; }
+    @Override
+    public String toString() {
+        return vokabel.getOriginal() + " → " + vokabel.getTranslation() + "   (" + setName + ")";
+    }
+}
+
+class VokabelSet {
+    private int id;
+    private String name;
+
+    public VokabelSet(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    @Override
+    public String toString() { return name; }
+}
+
+class Vokabel {
+    private int id;
+    private String original;
+    private String translation;
+
+    public Vokabel(int id, String original, String translation) {
+        this.id = id;
+        this.original = original;
+        this.translation = translation;
+    }
+
+    public int getId() { return id; }
+    public String getOriginal() { return original; }
+    public String getTranslation() { return translation; }
+}
+
+/**
+ * One committed row change. Changes carry no row index; rows are ordered by id, so the table model
+ * places them itself from the pages it has loaded and the writer never has to count rows.
+ */
+class VokabelChange {
+    enum Type { INSERTED, UPDATED, DELETED }
+
+    private final Type type;
+    private final int setId;
+    private final Vokabel vokabel;
+
+    private VokabelChange(Type type, int setId, Vokabel vokabel) {
+        this.type = type;
+        this.setId = setId;
+        this.vokabel = vokabel;
+    }
+
+    static VokabelChange inserted(int setId, Vokabel vokabel) {
+        return new VokabelChange(Type.INSERTED, setId, vokabel);
+    }
+
+    static VokabelChange updated(int setId, Vokabel vokabel) {
+        return new VokabelChange(Type.UPDATED, setId, vokabel);
+    }
+
+    /** {@code vokabel} is the row as it was before the delete. */
+    static VokabelChange deleted(int setId, Vokabel vokabel) {
+        return new VokabelChange(Type.DELETED, setId, vokabel);
+    }
+
+    public Type getType() { return type; }
+    public int getSetId() { return setId; }
+    public Vokabel getVokabel() { return vokabel; }
+}
+
+class ManageSetPanel extends JPanel {
+    private AsyncDatabase db;
+    private BackupManager backups;
+    private VokabeltrainerApp app;
+    private JComboBox<VokabelSet> setComboBox;
+    private JTable vokabelTable;
+    private VokabelTableModel tableModel;
+    private JLabel statusLabel;
+    private JButton undoButton, redoButton;
+    private boolean updatingSets = false;
+    private int pendingLoads = 0;
+    private JTextField searchField;
+    private JPopupMenu searchPopup;
+    private JList<VokabelSearchResult> searchResults;
+    private javax.swing.Timer searchTimer;
+    private static final int SEARCH_DEBOUNCE_MS = 150, SEARCH_LIMIT = 50;
+
+    public ManageSetPanel(AsyncDatabase db, VokabelEditQueue edits, BackupManager backups, VokabeltrainerApp app) {
+        this.db = db;
+        this.backups = backups;
+        this.app = app;
+        
+        setLayout(new BorderLayout(20, 20));
+        setBackground(Vokabeltrainer.BG_DARK);
+        setBorder(BorderFactory.createEmptyBorder(25, 25, 25, 25));
+
+        // Header
+        JPanel headerPanel = new JPanel(new BorderLayout(15, 15));
+        headerPanel.setBackground(Vokabeltrainer.BG_CARD);
+        headerPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Vokabeltrainer.ACCENT_BLUE, 3),
+            BorderFactory.createEmptyBorder(20, 25, 20, 25)
+        ));
+        
+        JLabel titleLabel = new JLabel("📚 Vokabelsets verwalten");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 32));
+        titleLabel.setForeground(Vokabeltrainer.TEXT_PRIMARY);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+
+        JPanel switchPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        switchPanel.setBackground(Vokabeltrainer.BG_CARD);
+        JButton statsButton = Vokabeltrainer.createModernButton("📊 Statistik", Vokabeltrainer.ACCENT_GREEN);
+        statsButton.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        statsButton.addActionListener(e -> app.showStatisticsPanel());
+        switchPanel.add(statsButton);
+        JButton switchButton = Vokabeltrainer.createModernButton("🎯 Zum Quiz", Vokabeltrainer.ACCENT_PURPLE);
+        switchButton.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        switchButton.addActionListener(e -> app.showQuizPanel());
+        switchPanel.add(switchButton);
+        headerPanel.add(switchPanel, BorderLayout.EAST);
+        headerPanel.add(createSearchPanel(), BorderLayout.CENTER);
+
+        add(headerPanel, BorderLayout.NORTH);
+
+        // Main Card
+        JPanel cardPanel = new JPanel(new BorderLayout(15, 15));
+        cardPanel.setBackground(Vokabeltrainer.BG_CARD);
+        cardPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Vokabeltrainer.BORDER_COLOR, 2),
+            BorderFactory.createEmptyBorder(20, 20, 20, 20)
+        ));
+
+        // Control Panel
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
+        controlPanel.setBackground(Vokabeltrainer.BG_CARD);
+        
+        JLabel setLabel = new JLabel("Set:");
+        setLabel.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        setLabel.setForeground(Vokabeltrainer.TEXT_SECONDARY);
+        controlPanel.add(setLabel);
+        
+        setComboBox = Vokabeltrainer.createModernComboBox();
+        setComboBox.setPreferredSize(new Dimension(280, 42));
+        setComboBox.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+        setComboBox.addActionListener(e -> loadVokabeln());
+        controlPanel.add(setComboBox);
+
+        controlPanel.add(Box.createHorizontalStrut(10));
+
+        JButton newSetButton = Vokabeltrainer.createModernButton("➕ Neues Set", Vokabeltrainer.ACCENT_BLUE);
+        newSetButton.addActionListener(e -> createNewSet());
+        controlPanel.add(newSetButton);
+
+        JButton deleteSetButton = Vokabeltrainer.createModernButton("🗑 Set löschen", Vokabeltrainer.ACCENT_RED);
+        deleteSetButton.addActionListener(e -> deleteCurrentSet());
+        controlPanel.add(deleteSetButton);
+
+        statusLabel = Vokabeltrainer.createLabel(" ", 14, Vokabeltrainer.TEXT_SECONDARY);
+        controlPanel.add(statusLabel);
+
+        cardPanel.add(controlPanel, BorderLayout.NORTH);
+
+        // Table
+        tableModel = new VokabelTableModel(db, edits);
+        edits.setErrorHandler(error -> {
+            showError(error);
+            loadVokabeln();
+        });
+        
+        vokabelTable = new JTable(tableModel);
+        vokabelTable.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+        vokabelTable.setRowHeight(40);
+        vokabelTable.setBackground(Vokabeltrainer.BG_DARKER);
+        vokabelTable.setForeground(Vokabeltrainer.TEXT_PRIMARY);
+        vokabelTable.setSelectionBackground(Vokabeltrainer.ACCENT_BLUE);
+        vokabelTable.setSelectionForeground(Color.WHITE);
+        vokabelTable.setGridColor(Vokabeltrainer.BORDER_COLOR);
+        vokabelTable.setShowGrid(true);
+        vokabelTable.setIntercellSpacing(new Dimension(1, 1));
+        vokabelTable.getColumnModel().getColumn(0).setPreferredWidth(60);
+        vokabelTable.getColumnModel().getColumn(0).setMaxWidth(80);
+        JTextField editorField = Vokabeltrainer.createModernTextField();
+        editorField.setBorder(BorderFactory.createLineBorder(Vokabeltrainer.ACCENT_BLUE, 2));
+        DefaultCellEditor cellEditor = new DefaultCellEditor(editorField);
+        cellEditor.setClickCountToStart(2);
+        vokabelTable.setDefaultEditor(Object.class, cellEditor);
+        
+        JTableHeader header = vokabelTable.getTableHeader();
+        header.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        header.setBackground(Vokabeltrainer.BG_CARD);
+        header.setForeground(Vokabeltrainer.ACCENT_BLUE);
+        header.setPreferredSize(new Dimension(header.getPreferredSize().width, 45));
+        header.setBorder(BorderFactory.createMatteBorder(0, 0, 3, 0, Vokabeltrainer.ACCENT_BLUE));
+        
+        JScrollPane scrollPane = new JScrollPane(vokabelTable);
+        scrollPane.setBorder(BorderFactory.createLineBorder(Vokabeltrainer.BORDER_COLOR, 2));
+        scrollPane.getViewport().setBackground(Vokabeltrainer.BG_DARKER);
+        
+        cardPanel.add(scrollPane, BorderLayout.CENTER);
+        add(cardPanel, BorderLayout.CENTER);
+
+        // Bottom Buttons
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
+        buttonPanel.setBackground(Vokabeltrainer.BG_DARK);
+        
+        JButton addButton = Vokabeltrainer.createModernButton("➕ Vokabel hinzufügen", Vokabeltrainer.ACCENT_GREEN);
+        addButton.addActionListener(e -> addVokabel());
+        buttonPanel.add(addButton);
+
+        JButton deleteButton = Vokabeltrainer.createModernButton("🗑 Vokabel löschen", Vokabeltrainer.ACCENT_ORANGE);
+        deleteButton.addActionListener(e -> deleteSelectedVokabel());
+        buttonPanel.add(deleteButton);
+
+        JButton importButton = Vokabeltrainer.createModernButton("📥 Importieren", Vokabeltrainer.ACCENT_BLUE);
+        importButton.addActionListener(e -> importVokabeln());
+        buttonPanel.add(importButton);
+
+        JButton exportButton = Vokabeltrainer.createModernButton("📤 Exportieren", Vokabeltrainer.ACCENT_PURPLE);
+        exportButton.addActionListener(e -> exportVokabeln());
+        buttonPanel.add(exportButton);
+
+        JButton dedupButton = Vokabeltrainer.createModernButton("🧹 Duplikate bereinigen", Vokabeltrainer.ACCENT_ORANGE);
+        dedupButton.addActionListener(e -> deduplicateVokabeln());
+        buttonPanel.add(dedupButton);
+
+        JButton backupButton = Vokabeltrainer.createModernButton("💾 Sicherung", Vokabeltrainer.ACCENT_BLUE);
+        backupButton.addActionListener(e -> showBackupDialog());
+        buttonPanel.add(backupButton);
+
+        undoButton = Vokabeltrainer.createModernButton("↶", Vokabeltrainer.BG_CARD);
+        undoButton.addActionListener(e -> replay(true));
+        buttonPanel.add(undoButton);
+        redoButton = Vokabeltrainer.createModernButton("↷", Vokabeltrainer.BG_CARD);
+        redoButton.addActionListener(e -> replay(false));
+        buttonPanel.add(redoButton);
+        InputMap keys = getInputMap(WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
+        keys.put(KeyStroke.getKeyStroke("ctrl Z"), "undo");
+        keys.put(KeyStroke.getKeyStroke("ctrl Y"), "redo");
+        getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) { replay(true); }
+        });
+        getActionMap().put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) { replay(false); }
+        });
+        UndoJournal journal = db.getUndoJournal();
+        if (journal != null) journal.setListener(() -> SwingUtilities.invokeLater(this::updateUndoButtons));
+        updateUndoButtons();
+
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void updateUndoButtons() {
+        UndoJournal journal = db.getUndoJournal();
+        String undo = journal != null ? journal.getUndoLabel() : null;
+        String redo = journal != null ? journal.getRedoLabel() : null;
+        undoButton.setEnabled(undo != null);
+        undoButton.setToolTipText(undo != null ? "Rückgängig: " + undo + " (Strg+Z)" : "Nichts rückgängig zu machen");
+        redoButton.setEnabled(redo != null);
+        redoButton.setToolTipText(redo != null ? "Wiederholen: " + redo + " (Strg+Y)" : "Nichts zu wiederholen");
+    }
+
+    /** Undoes ({@code undo}) or redoes the newest journal entry. */
+    private void replay(boolean undo) {
+        if (db.getUndoJournal() == null) return;
+        // Pending table edits are journaled first, so they are what gets undone
+        flushEdits().handle((count, error) -> null)
+                .thenCompose(ignored -> undo ? db.undo() : db.redo())
+                .whenCompleteAsync((entry, error) -> {
+                    if (error != null) {
+                        showError(error);
+                        refreshSets();
+                    } else if (entry != null && entry.isBulk()) {
+                        // Single rows already reached the table as change events
+                        refreshSets();
+                    }
+                }, AsyncDatabase.EDT);
+    }
+
+    private JPanel createSearchPanel() {
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        searchPanel.setBackground(Vokabeltrainer.BG_CARD);
+        searchPanel.add(Vokabeltrainer.createLabel("🔍", 18, Vokabeltrainer.TEXT_SECONDARY));
+
+        searchField = Vokabeltrainer.createModernTextField();
+        searchField.setPreferredSize(new Dimension(260, 42));
+        searchField.setToolTipText("In allen Sets suchen");
+        searchPanel.add(searchField);
+
+        searchResults = new JList<>();
+        searchResults.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        searchResults.setBackground(Vokabeltrainer.BG_DARKER);
+        searchResults.setForeground(Vokabeltrainer.TEXT_PRIMARY);
+        searchResults.setSelectionBackground(Vokabeltrainer.ACCENT_BLUE);
+        searchResults.setFocusable(false);
+        searchResults.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                VokabelSearchResult result = searchResults.getSelectedValue();
+                if (result != null) showSearchResult(result);
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(searchResults);
+        scrollPane.setBorder(BorderFactory.createLineBorder(Vokabeltrainer.BORDER_COLOR, 2));
+        scrollPane.setPreferredSize(new Dimension(420, 260));
+        searchPopup = new JPopupMenu();
+        searchPopup.setFocusable(false);
+        searchPopup.add(scrollPane);
+
+        // Debounce: only the last keystroke within the delay triggers a query
+        searchTimer = new javax.swing.Timer(SEARCH_DEBOUNCE_MS, e -> runSearch());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+        });
+        return searchPanel;
+    }
+
+    private void runSearch() {
+        String text = searchField.getText().trim();
+        if (text.isEmpty()) {
+            searchPopup.setVisible(false);
+            return;
+        }
+        db.search(text, SEARCH_LIMIT).whenCompleteAsync((results, error) -> {
+            if (error != null) {
+                if (!AsyncDatabase.isCancellation(error)) showError(error);
+                return;
+            }
+            if (results == null || !text.equals(searchField.getText().trim())) return;
+            if (results.isEmpty()) {
+                searchPopup.setVisible(false);
+                return;
+            }
+            searchResults.setListData(results.toArray(new VokabelSearchResult[0]));
+            if (!searchPopup.isVisible()) searchPopup.show(searchField, 0, searchField.getHeight());
+        }, AsyncDatabase.EDT);
+    }
+
+    /** Switches to the result's set and selects its row once that page is known. */
+    private void showSearchResult(VokabelSearchResult result) {
+        searchPopup.setVisible(false);
+        VokabelSet current = (VokabelSet) setComboBox.getSelectedItem();
+        CompletableFuture<Integer> loaded;
+        if (current != null && current.getId() == result.getSetId()) {
+            loaded = CompletableFuture.completedFuture(tableModel.getRowCount());
+        } else {
+            for (int i = 0; i < setComboBox.getItemCount(); i++) {
+                if (setComboBox.getItemAt(i).getId() == result.getSetId()) {
+                    updatingSets = true;
+                    setComboBox.setSelectedIndex(i);
+                    updatingSets = false;
+                    break;
+                }
+            }
+            loaded = loadVokabeln();
+        }
+        loaded.thenCompose(count -> db.read(d -> d.getRowIndex(result.getSetId(), result.getVokabel().getId())))
+            .whenCompleteAsync((row, error) -> {
+                if (error != null) {
+                    showError(error);
+                    return;
+                }
+                if (row < tableModel.getRowCount()) {
+                    vokabelTable.setRowSelectionInterval(row, row);
+                    vokabelTable.scrollRectToVisible(vokabelTable.getCellRect(row, 0, true));
+                }
+            }, AsyncDatabase.EDT);
+    }
+
+    /** Reloads the set list and the selected set's table; completes with its row count. */
+    public CompletableFuture<Integer> refreshSets() {
+        beginLoading();
+        UiEvent event = UiEvent.begin("manage.refreshSets");
+        CompletableFuture<Integer> refreshed = new CompletableFuture<>();
+        db.getAllSets().whenCompleteAsync((sets, error) -> {
+            endLoading();
+            if (error != null) {
+                showError(error);
+                refreshed.completeExceptionally(error);
+                return;
+            }
+            updatingSets = true;
+            setComboBox.removeAllItems();
+            for (VokabelSet set : sets) {
+                setComboBox.addItem(set);
+            }
+            updatingSets = false;
+            event.finish(null, sets.size());
+            loadVokabeln().whenComplete((count, loadError) -> {
+                if (loadError != null) refreshed.completeExceptionally(loadError);
+                else refreshed.complete(count);
+            });
+        }, AsyncDatabase.EDT);
+        return refreshed;
+    }
+
+    private void beginLoading() {
+        if (pendingLoads++ == 0) {
+            statusLabel.setText("⏳ Lädt...");
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        }
+    }
+
+    private void endLoading() {
+        if (--pendingLoads == 0) {
+            statusLabel.setText(" ");
+            setCursor(Cursor.getDefaultCursor());
+        }
+    }
+
+    private void showError(Throwable error) {
+        JOptionPane.showMessageDialog(this, "Fehler: " + AsyncDatabase.errorMessage(error));
+    }
+
+    private void createNewSet() {
+        JTextField nameField = Vokabeltrainer.createModernTextField();
+        nameField.setPreferredSize(new Dimension(300, 45));
+        
+        Object[] message = {
+            Vokabeltrainer.createLabel("Name des neuen Sets:", 14, Vokabeltrainer.TEXT_PRIMARY),
+            nameField
+        };
+        
+        int option = JOptionPane.showConfirmDialog(this, message, "Neues Set erstellen", JOptionPane.OK_CANCEL_OPTION);
+        if (option == JOptionPane.OK_OPTION && !nameField.getText().trim().isEmpty()) {
+            db.createSet(nameField.getText().trim()).whenCompleteAsync((ignored, error) -> {
+                if (error != null) showError(error);
+                else refreshSets();
+            }, AsyncDatabase.EDT);
+        }
+    }
+
+    private void deleteCurrentSet() {
+        VokabelSet set = (VokabelSet) setComboBox.getSelectedItem();
+        if (set != null && JOptionPane.showConfirmDialog(this, 
+                "Set '" + set.getName() + "' wirklich löschen?\n(Rückgängig mit ↶ oder Strg+Z)", "Bestätigung", 
+                JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+            db.deleteSet(set.getId()).whenCompleteAsync((ignored, error) -> {
+                if (error != null) showError(error);
+                else refreshSets();
+            }, AsyncDatabase.EDT);
+        }
+    }
+
+    /**
+     * Ends an edit still open in the table and saves all queued edits; completes once they are
+     * committed. Called before anything that leaves the current view.
+     */
+    public CompletableFuture<Integer> flushEdits() {
+        if (vokabelTable.isEditing()) vokabelTable.getCellEditor().stopCellEditing();
+        return tableModel.getEdits().flush();
+    }
+
+    private CompletableFuture<Integer> loadVokabeln() {
+        if (updatingSets) return CompletableFuture.completedFuture(0);
+        flushEdits();
+        VokabelSet set = (VokabelSet) setComboBox.getSelectedItem();
+        if (set == null) {
+            tableModel.clear();
+            return CompletableFuture.completedFuture(0);
+        }
+
+        beginLoading();
+        CompletableFuture<Integer> loaded = tableModel.load(set.getId());
+        loaded.whenCompleteAsync((count, error) -> {
+            endLoading();
+            if (error != null) showError(error);
+        }, AsyncDatabase.EDT);
+        return loaded;
+    }
+
+    private void addVokabel() {
+        VokabelSet set = (VokabelSet) setComboBox.getSelectedItem();
+        if (set == null) {
+            JOptionPane.showMessageDialog(this, "Bitte zuerst ein Set auswählen!");
+            return;
+        }
+
+        JTextField originalField = Vokabeltrainer.createModernTextField();
+        JTextField translationField = Vokabeltrainer.createModernTextField();
+        originalField.setPreferredSize(new Dimension(300, 45));
+        translationField.setPreferredSize(new Dimension(300, 45));
+        
+        Object[] message = {
+            Vokabeltrainer.createLabel("Original:", 14, Vokabeltrainer.TEXT_PRIMARY), originalField,
+            Vokabeltrainer.createLabel("Übersetzung:", 14, Vokabeltrainer.TEXT_PRIMARY), translationField
+        };
+
+        if (JOptionPane.showConfirmDialog(this, message, "Neue Vokabel", JOptionPane.OK_CANCEL_OPTION) == JOptionPane.OK_OPTION) {
+            String original = originalField.getText().trim();
+            String translation = translationField.getText().trim();
+            if (!original.isEmpty() && !translation.isEmpty()) {
+                db.addVokabel(set.getId(), original, translation).whenCompleteAsync((id, error) -> {
+                    if (error != null) {
+                        showError(error);
+                        return;
+                    }
+                    // The table already got the new row from the change event, which is delivered first
+                    int row = id >= 0 ? tableModel.findRow(id) : -1;
+                    if (row >= 0) {
+                        vokabelTable.setRowSelectionInterval(row, row);
+                        vokabelTable.scrollRectToVisible(vokabelTable.getCellRect(row, 0, true));
+                    }
+                    if (id < 0) {
+                        JOptionPane.showMessageDialog(this, "\"" + original + "\" ist in diesem Set bereits vorhanden.",
+                                "Duplikat", JOptionPane.INFORMATION_MESSAGE);
+                    }
+                }, AsyncDatabase.EDT);
+            }
+        }
+    }
+
+    private void importVokabeln() {
+        VokabelSet set = (VokabelSet) setComboBox.getSelectedItem();
+        if (set == null) {
+            JOptionPane.showMessageDialog(this, "Bitte zuerst ein Set auswählen!");
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV / TSV / Vokabeltrainer-Export", "csv", "tsv", "txt", "vokb"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Importiere " + file.getFileName(), "", 0, 1000);
+        monitor.setMillisToDecideToPopup(200);
+        VokabelImporter importer = db.newImporter(VokabelImporter.DEFAULT_COMMIT_SIZE);
+        beginLoading();
+        db.importFile(importer, file, set.getId(), (rows, bytesRead, totalBytes, rowsPerSecond) ->
+            SwingUtilities.invokeLater(() -> {
+                if (monitor.isCanceled()) importer.cancel();
+                monitor.setProgress(totalBytes > 0 ? (int) (bytesRead * 1000 / totalBytes) : 0);
+                monitor.setNote(String.format("%,d Vokabeln (%,.0f/s)", rows, rowsPerSecond));
+            })
+        ).whenCompleteAsync((result, error) -> {
+            endLoading();
+            monitor.close();
+            loadVokabeln();
+            if (error != null) {
+                showError(error);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, String.format(
+                "Import abgeschlossen!\n\n✓ Gelesen: %,d\n✗ Ungültig: %,d\n⏱ %,d ms (%,.0f Vokabeln/s)\n\nDuplikate:\n%s",
+                result.rows, result.skipped, result.millis, result.rowsPerSecond(), result.duplicates.summary()));
+        }, AsyncDatabase.EDT);
+    }
+
+    private void exportVokabeln() {
+        VokabelSet set = (VokabelSet) setComboBox.getSelectedItem();
+        Object[] options = {"Aktuelles Set", "Alle Sets", "Abbrechen"};
+        int choice = JOptionPane.showOptionDialog(this, "Was soll exportiert werden?", "Exportieren",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (choice != 0 && choice != 1) return;
+        if (choice == 0 && set == null) {
+            JOptionPane.showMessageDialog(this, "Bitte zuerst ein Set auswählen!");
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV", "csv"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("TSV", "tsv"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("Vokabeltrainer-Export (binär)", "vokb"));
+        chooser.setSelectedFile(new File((choice == 0 ? set.getName() : "vokabeln") + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+
+        beginLoading();
+        db.export(file, choice == 0 ? set.getId() : null).whenCompleteAsync((result, error) -> {
+            endLoading();
+            if (error != null) {
+                showError(error);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, String.format(
+                "Export abgeschlossen!\n\n✓ Exportiert: %,d Vokabeln\n💾 %,d KB in %,d ms (%.1f MB/s)",
+                result.rows, result.bytes / 1024, result.millis, result.megabytesPerSecond()));
+        }, AsyncDatabase.EDT);
+    }
+
+    private void deduplicateVokabeln() {
+        VokabelSet set = (VokabelSet) setComboBox.getSelectedItem();
+        if (set == null) {
+            JOptionPane.showMessageDialog(this, "Bitte zuerst ein Set auswählen!");
+            return;
+        }
+        beginLoading();
+        db.deduplicateSet(set.getId()).whenCompleteAsync((report, error) -> {
+            endLoading();
+            loadVokabeln();
+            if (error != null) {
+                showError(error);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, report.getDuplicates() == 0
+                    ? "Keine Duplikate gefunden."
+                    : "Duplikate bereinigt!\n\n" + report.summary());
+        }, AsyncDatabase.EDT);
+    }
+
+    private void showBackupDialog() {
+        Object[] options = {"Jetzt sichern", "Wiederherstellen…", "Verkleinern…", "Abbrechen"};
+        int choice = JOptionPane.showOptionDialog(this,
+                "Sicherungen liegen in " + backups.getDirectory().toAbsolutePath(), "Sicherung",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (choice == 0) createBackup();
+        else if (choice == 1) restoreBackup();
+        else if (choice == 2) enableIncrementalVacuum();
+    }
+
+    private void enableIncrementalVacuum() {
+        if (JOptionPane.showConfirmDialog(this,
+                "Die Datenbank wird einmal vollständig neu geschrieben, damit sie danach freien\n" +
+                "Platz laufend zurückgibt. Bei großen Datenbanken dauert das eine Weile.\n\nJetzt verkleinern?",
+                "Verkleinern", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) return;
+        beginLoading();
+        db.enableIncrementalVacuum().whenCompleteAsync((converted, error) -> {
+            endLoading();
+            if (error != null) {
+                showError(error);
+                return;
+            }
+            if (!converted) db.compactInBackground();
+            JOptionPane.showMessageDialog(this, converted
+                    ? "Datenbank verkleinert."
+                    : "Die Datenbank gibt freien Platz bereits laufend zurück.");
+        }, AsyncDatabase.EDT);
+    }
+
+    private void createBackup() {
+        ProgressMonitor monitor = new ProgressMonitor(this, "Sichere Datenbank", "", 0, 1000);
+        monitor.setMillisToDecideToPopup(200);
+        beginLoading();
+        // Pending table edits belong in the snapshot
+        flushEdits().handle((count, error) -> null)
+                .thenCompose(ignored -> backups.snapshotAsync(progressTo(monitor)))
+                .whenCompleteAsync((snapshot, error) -> {
+                    endLoading();
+                    monitor.close();
+                    if (error != null) {
+                        showError(error);
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(this, String.format(
+                        "Sicherung erstellt!\n\n💾 %s\n%,d KB in %,d ms (%.1f MB/s)",
+                        snapshot.file.getFileName(), snapshot.bytes / 1024, snapshot.millis, snapshot.megabytesPerSecond()));
+                }, AsyncDatabase.EDT);
+    }
+
+    private void restoreBackup() {
+        JFileChooser chooser = new JFileChooser(backups.getDirectory().toAbsolutePath().toFile());
+        chooser.setFileFilter(new FileNameExtensionFilter("Vokabeltrainer-Sicherung", "db"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        if (JOptionPane.showConfirmDialog(this,
+                "Alle Sets und Vokabeln durch den Stand aus\n" + file.getFileName() + " ersetzen?\n\n" +
+                "(Der jetzige Stand wird vorher gesichert.)", "Wiederherstellen",
+                JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) return;
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Stelle " + file.getFileName() + " wieder her",
+                "Prüfe Sicherung...", 0, 1000);
+        monitor.setMillisToDecideToPopup(200);
+        beginLoading();
+        // Saved first, so no queued edit lands on the restored data afterwards
+        flushEdits().handle((count, error) -> null)
+                .thenCompose(ignored -> backups.restoreAsync(file, progressTo(monitor)))
+                .whenCompleteAsync((before, error) -> {
+                    endLoading();
+                    monitor.close();
+                    refreshSets();
+                    if (error != null) {
+                        showError(error);
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(this, "Wiederhergestellt aus " + file.getFileName() +
+                        ".\n\nDer vorherige Stand wurde gesichert als\n" + before.file.getFileName());
+                }, AsyncDatabase.EDT);
+    }
+
+    private BackupManager.ProgressListener progressTo(ProgressMonitor monitor) {
+        return (copied, total) -> SwingUtilities.invokeLater(() -> {
+            monitor.setProgress(total > 0 ? (int) (copied * 1000L / total) : 0);
+            monitor.setNote(String.format("%,d von %,d Seiten", copied, total));
+        });
+    }
+
+    private void deleteSelectedVokabel() {
+        int row = vokabelTable.getSelectedRow();
+        Vokabel vokabel = row >= 0 ? tableModel.getVokabelAt(row) : null;
+        if (vokabel != null && JOptionPane.showConfirmDialog(this, "Vokabel löschen?", 
+                "Bestätigung", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+            db.deleteVokabel(vokabel.getId()).whenCompleteAsync((ignored, error) -> {
+                if (error != null) {
+                    showError(error);
+                    return;
+                }
+                // The row is already gone via the change event; keep the selection where it was
+                int next = Math.min(row, tableModel.getRowCount() - 1);
+                if (next >= 0) vokabelTable.setRowSelectionInterval(next, next);
+            }, AsyncDatabase.EDT);
+        }
+    }
+}
+
+class QuizPanel extends JPanel {
+    private AsyncDatabase db;
+    private VokabeltrainerApp app;
+    private JComboBox<VokabelSet> setComboBox;
+    private JComboBox<String> modeComboBox;
+    private JLabel questionLabel, resultLabel, scoreLabel;
+    private JTextField answerField;
+    private JButton startButton, checkButton, nextButton;
+    private JCheckBox reviewCheckBox;
+    private final AnswerMatcher answerMatcher;
+    private final AnswerLog answerLog;
+    private QuizSession session;
+
+    // Spaced-repetition mode: only due cards, ordered by due time
+    private static final int MAX_DUE_CARDS = 1000, MAX_NEW_CARDS = 20;
+    private final SpacedRepetitionScheduler scheduler = new SpacedRepetitionScheduler();
+
+    public QuizPanel(AsyncDatabase db, AnswerMatcher answerMatcher, AnswerLog answerLog, VokabeltrainerApp app) {
+        this.db = db;
+        this.answerMatcher = answerMatcher;
+        this.answerLog = answerLog;
+        this.app = app;
+        
+        setLayout(new BorderLayout(20, 20));
+        setBackground(Vokabeltrainer.BG_DARK);
+        setBorder(BorderFactory.createEmptyBorder(25, 25, 25, 25));
+
+        // Header
+        JPanel headerPanel = new JPanel(new BorderLayout(15, 15));
+        headerPanel.setBackground(Vokabeltrainer.BG_CARD);
+        headerPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Vokabeltrainer.ACCENT_PURPLE, 3),
+            BorderFactory.createEmptyBorder(20, 25, 20, 25)
+        ));
+        
+        JLabel titleLabel = new JLabel("🎯 Quiz-Modus");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 32));
+        titleLabel.setForeground(Vokabeltrainer.TEXT_PRIMARY);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+
+        JButton switchButton = Vokabeltrainer.createModernButton("📚 Zur Verwaltung", Vokabeltrainer.ACCENT_BLUE);
+        switchButton.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        switchButton.addActionListener(e -> app.showManagePanel());
+        headerPanel.add(switchButton, BorderLayout.EAST);
+
+        add(headerPanel, BorderLayout.NORTH);
+
+        // Control Panel
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 15));
+        controlPanel.setBackground(Vokabeltrainer.BG_CARD);
+        controlPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Vokabeltrainer.BORDER_COLOR, 2),
+            BorderFactory.createEmptyBorder(15, 20, 15, 20)
+        ));
+        
+        controlPanel.add(Vokabeltrainer.createLabel("Set:", 15, Vokabeltrainer.TEXT_SECONDARY));
+        setComboBox = Vokabeltrainer.createModernComboBox();
+        setComboBox.setPreferredSize(new Dimension(250, 42));
+        setComboBox.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+        controlPanel.add(setComboBox);
+
+        controlPanel.add(Box.createHorizontalStrut(20));
+        controlPanel.add(Vokabeltrainer.createLabel("Modus:", 15, Vokabeltrainer.TEXT_SECONDARY));
+        
+        modeComboBox = Vokabeltrainer.createModernComboBox();
+        modeComboBox.addItem("📖 Original → Übersetzung");
+        modeComboBox.addItem("🔄 Übersetzung → Original");
+        modeComboBox.addItem("🎲 Gemischt");
+        modeComboBox.setPreferredSize(new Dimension(250, 42));
+        modeComboBox.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+        controlPanel.add(modeComboBox);
+
+        controlPanel.add(Box.createHorizontalStrut(10));
+        reviewCheckBox = new JCheckBox("🧠 Nur fällige");
+        reviewCheckBox.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        reviewCheckBox.setForeground(Vokabeltrainer.TEXT_SECONDARY);
+        reviewCheckBox.setBackground(Vokabeltrainer.BG_CARD);
+        reviewCheckBox.setFocusPainted(false);
+        reviewCheckBox.setToolTipText("Wiederholung nach Lernplan (SM-2): nur fällige und neue Vokabeln");
+        controlPanel.add(reviewCheckBox);
+
+        controlPanel.add(Box.createHorizontalStrut(20));
+        startButton = Vokabeltrainer.createModernButton("▶ Quiz starten", Vokabeltrainer.ACCENT_GREEN);
+        startButton.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        startButton.addActionListener(e -> startQuiz());
+        controlPanel.add(startButton);
+
+        // Quiz Card
+        JPanel quizCard = new JPanel();
+        quizCard.setLayout(new BoxLayout(quizCard, BoxLayout.Y_AXIS));
+        quizCard.setBackground(Vokabeltrainer.BG_CARD);
+        quizCard.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Vokabeltrainer.BORDER_COLOR, 2),
+            BorderFactory.createEmptyBorder(40, 40, 40, 40)
+        ));
+
+        scoreLabel = new JLabel(" ");
+        scoreLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        scoreLabel.setForeground(Vokabeltrainer.ACCENT_BLUE);
+        scoreLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        quizCard.add(scoreLabel);
+
+        quizCard.add(Box.createVerticalStrut(40));
+
+        questionLabel = new JLabel("Wähle ein Set und starte das Quiz!");
+        questionLabel.setFont(new Font("Segoe UI", Font.BOLD, 26));
+        questionLabel.setForeground(Vokabeltrainer.TEXT_PRIMARY);
+        questionLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        quizCard.add(questionLabel);
+
+        quizCard.add(Box.createVerticalStrut(35));
+
+        answerField = Vokabeltrainer.createModernTextField();
+        answerField.setMaximumSize(new Dimension(500, 50));
+        answerField.setFont(new Font("Segoe UI", Font.PLAIN, 18));
+        answerField.setEnabled(false);
+        answerField.addActionListener(e -> checkAnswer());
+        answerField.setAlignmentX(Component.CENTER_ALIGNMENT);
+        quizCard.add(answerField);
+
+        quizCard.add(Box.createVerticalStrut(25));
+
+        resultLabel = new JLabel(" ");
+        resultLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        resultLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        quizCard.add(resultLabel);
+
+        JPanel centerPanel = new JPanel(new BorderLayout(15, 15));
+        centerPanel.setBackground(Vokabeltrainer.BG_DARK);
+        centerPanel.add(controlPanel, BorderLayout.NORTH);
+        centerPanel.add(quizCard, BorderLayout.CENTER);
+        add(centerPanel, BorderLayout.CENTER);
+
+        // Bottom Buttons
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 0));
+        buttonPanel.setBackground(Vokabeltrainer.BG_DARK);
+        
+        checkButton = Vokabeltrainer.createModernButton("✓ Prüfen", Vokabeltrainer.ACCENT_GREEN);
+        checkButton.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        checkButton.setEnabled(false);
+        checkButton.addActionListener(e -> checkAnswer());
+        buttonPanel.add(checkButton);
+
+        nextButton = Vokabeltrainer.createModernButton("➡ Weiter", Vokabeltrainer.ACCENT_BLUE);
+        nextButton.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        nextButton.setEnabled(false);
+        nextButton.addActionListener(e -> nextVokabel());
+        buttonPanel.add(nextButton);
+
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    public void refreshSets() {
+        setComboBox.setEnabled(false);
+        UiEvent event = UiEvent.begin("quiz.refreshSets");
+        db.getAllSets().whenCompleteAsync((sets, error) -> {
+            setComboBox.setEnabled(true);
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Fehler: " + AsyncDatabase.errorMessage(error));
+                return;
+            }
+            setComboBox.removeAllItems();
+            for (VokabelSet set : sets) {
+                setComboBox.addItem(set);
+            }
+            event.finish(null, sets.size());
+        }, AsyncDatabase.EDT);
+    }
+
+    private void startQuiz() {
+        VokabelSet set = (VokabelSet) setComboBox.getSelectedItem();
+        if (set == null) {
+            JOptionPane.showMessageDialog(this, "Bitte ein Set auswählen!");
+            return;
+        }
+
+        startButton.setEnabled(false);
+        answerField.setEnabled(false);
+        checkButton.setEnabled(false);
+        nextButton.setEnabled(false);
+        questionLabel.setText("⏳ Vokabeln werden geladen...");
+        QuizSession.Direction direction = QuizSession.Direction.values()[modeComboBox.getSelectedIndex()];
+        if (reviewCheckBox.isSelected()) {
+            startReview(set, direction);
+            return;
+        }
+        db.read(d -> {
+            List<Vokabel> vokabeln = d.getVokabelnBySet(set.getId());
+            return QuizSession.of(vokabeln, answerMatcher.prepareAll(vokabeln), answerMatcher, direction, new Random())
+                    .logTo(answerLog, set.getId());
+        }).whenCompleteAsync((newSession, error) -> {
+            startButton.setEnabled(true);
+            if (error != null) {
+                questionLabel.setText("Wähle ein Set und starte das Quiz!");
+                JOptionPane.showMessageDialog(this, "Fehler: " + AsyncDatabase.errorMessage(error));
+                return;
+            }
+            if (newSession.getSize() == 0) {
+                questionLabel.setText("Wähle ein Set und starte das Quiz!");
+                JOptionPane.showMessageDialog(this, "Dieses Set enthält keine Vokabeln!");
+                return;
+            }
+            beginSession(newSession);
+        }, AsyncDatabase.EDT);
+    }
+
+    private void startReview(VokabelSet set, QuizSession.Direction direction) {
+        int setId = set.getId();
+        long now = System.currentTimeMillis();
+        db.read(d -> {
+            List<ReviewState> cards = d.getDueReviews(setId, now, MAX_DUE_CARDS, MAX_NEW_CARDS);
+            List<Vokabel> vokabeln = new ArrayList<>(cards.size());
+            for (ReviewState card : cards) vokabeln.add(card.getVokabel());
+            return QuizSession.review(cards, answerMatcher.prepareAll(vokabeln), answerMatcher, direction,
+                    new Random(), scheduler, System::currentTimeMillis, snapshot -> saveReview(setId, snapshot))
+                    .logTo(answerLog, setId);
+        }).whenCompleteAsync((newSession, error) -> {
+            startButton.setEnabled(true);
+            if (error != null) {
+                questionLabel.setText("Wähle ein Set und starte das Quiz!");
+                JOptionPane.showMessageDialog(this, "Fehler: " + AsyncDatabase.errorMessage(error));
+                return;
+            }
+            if (newSession.getRemaining() == 0) {
+                questionLabel.setText("✅ Keine Vokabeln fällig!");
+                JOptionPane.showMessageDialog(this, "In diesem Set ist gerade nichts zu wiederholen.");
+                return;
+            }
+            beginSession(newSession);
+        }, AsyncDatabase.EDT);
+    }
+
+    private void saveReview(int setId, ReviewState snapshot) {
+        db.submit(d -> { d.saveReview(setId, snapshot); return null; }).exceptionally(error -> {
+            error.printStackTrace();
+            return null;
+        });
+    }
+
+    private void beginSession(QuizSession newSession) {
+        session = newSession;
+        showNextQuestion();
+    }
+
+    private void showNextQuestion() {
+        if (!session.next()) {
+            finishQuiz();
+            return;
+        }
+        questionLabel.setText((session.isReverse() ? "🔄 " : "📖 ") + session.getPrompt());
+        answerField.setText("");
+        answerField.setEnabled(true);
+        answerField.requestFocus();
+        resultLabel.setText(" ");
+        checkButton.setEnabled(true);
+        nextButton.setEnabled(false);
+        updateScore();
+    }
+
+    private void checkAnswer() {
+        if (session == null || session.getState() != QuizSession.State.ASKING || !answerField.isEnabled()) return;
+
+        AnswerMatcher.Verdict verdict = session.answer(answerField.getText());
+        String correct = session.getExpected();
+        String time = String.format("  (⏱ %.1f s)", session.getLastResponseNanos() / 1e9);
+        if (verdict == AnswerMatcher.Verdict.CORRECT) {
+            resultLabel.setText("✓ Richtig!" + time);
+            resultLabel.setForeground(Vokabeltrainer.ACCENT_GREEN);
+        } else if (verdict == AnswerMatcher.Verdict.TYPO) {
+            resultLabel.setText("✓ Fast richtig! Genau: " + correct + time);
+            resultLabel.setForeground(Vokabeltrainer.ACCENT_ORANGE);
+        } else {
+            resultLabel.setText("✗ Falsch! Richtig: " + correct + time);
+            resultLabel.setForeground(Vokabeltrainer.ACCENT_RED);
+        }
+
+        answerField.setEnabled(false);
+        checkButton.setEnabled(false);
+        nextButton.setEnabled(true);
+        nextButton.requestFocus();
+        updateScore();
+    }
+
+    private void nextVokabel() {
+        showNextQuestion();
+    }
+
+    private void updateScore() {
+        if (session.getTotalCount() > 0) {
+            scoreLabel.setText(String.format("📊 Score: %d / %d (%d%%)",
+                    session.getCorrectCount(), session.getTotalCount(), session.getPercent()));
+        } else if (session.isReview()) {
+            scoreLabel.setText("🧠 Fällige Vokabeln: " + (session.getRemaining() + 1));
+        } else {
+            scoreLabel.setText("Vokabel " + session.getPosition() + " von " + session.getSize());
+        }
+    }
+
+    private void finishQuiz() {
+        questionLabel.setText("🎉 Quiz beendet!");
+        answerField.setEnabled(false);
+        checkButton.setEnabled(false);
+        nextButton.setEnabled(false);
+        
+        int correctCount = session.getCorrectCount(), totalCount = session.getTotalCount();
+        int pct = session.getPercent();
+        resultLabel.setText(String.format("Endergebnis: %d / %d (%d%%)", correctCount, totalCount, pct));
+        resultLabel.setForeground(Vokabeltrainer.ACCENT_PURPLE);
+
+        JOptionPane.showMessageDialog(this, 
+            String.format("Quiz beendet!\n\n✓ Richtig: %d\n✗ Falsch: %d\n📊 Ergebnis: %d%%", 
+                correctCount, totalCount - correctCount, pct));
+    }
+}
+
+/**
+ * Learning statistics. Reads only the aggregate tables kept by {@link AnswerStatistics},
+ * so opening it costs the same after a week or after years of answers.
+ */
+class StatisticsPanel extends JPanel {
+    private static final int TREND_DAYS = 30, HARDEST_LIMIT = 15, HARDEST_MIN_ATTEMPTS = 3;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5_000;
+
+    private final AsyncDatabase db;
+    private final AnswerLog answerLog;
+    private final JLabel streakLabel, totalLabel, accuracyLabel;
+    private final DefaultTableModel setTableModel, hardestTableModel;
+    private final JTable setTable;
+    private final DailyChart chart = new DailyChart();
+    private final JLabel chartTitle;
+    private List<SetStatistics> setStatistics = new ArrayList<>();
+    private int generation = 0;
+
+    public StatisticsPanel(AsyncDatabase db, AnswerLog answerLog, VokabeltrainerApp app) {
+        this.db = db;
+        this.answerLog = answerLog;
+
+        setLayout(new BorderLayout(20, 20));
+        setBackground(Vokabeltrainer.BG_DARK);
+        setBorder(BorderFactory.createEmptyBorder(25, 25, 25, 25));
+
+        // Header
+        JPanel headerPanel = new JPanel(new BorderLayout(15, 15));
+        headerPanel.setBackground(Vokabeltrainer.BG_CARD);
+        headerPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Vokabeltrainer.ACCENT_GREEN, 3),
+            BorderFactory.createEmptyBorder(20, 25, 20, 25)
+        ));
+
+        JLabel titleLabel = new JLabel("📊 Lernstatistik");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 32));
+        titleLabel.setForeground(Vokabeltrainer.TEXT_PRIMARY);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+
+        JPanel summaryPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 25, 8));
+        summaryPanel.setBackground(Vokabeltrainer.BG_CARD);
+        streakLabel = Vokabeltrainer.createLabel(" ", 18, Vokabeltrainer.ACCENT_ORANGE);
+        totalLabel = Vokabeltrainer.createLabel(" ", 18, Vokabeltrainer.TEXT_PRIMARY);
+        accuracyLabel = Vokabeltrainer.createLabel(" ", 18, Vokabeltrainer.ACCENT_GREEN);
+        summaryPanel.add(streakLabel);
+        summaryPanel.add(totalLabel);
+        summaryPanel.add(accuracyLabel);
+        headerPanel.add(summaryPanel, BorderLayout.CENTER);
+
+        JButton switchButton = Vokabeltrainer.createModernButton("📚 Zur Verwaltung", Vokabeltrainer.ACCENT_BLUE);
+        switchButton.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        switchButton.addActionListener(e -> app.showManagePanel());
+        headerPanel.add(switchButton, BorderLayout.EAST);
+
+        add(headerPanel, BorderLayout.NORTH);
+
+        // Sets (left), trend and hardest words of the selected set (right)
+        setTableModel = readOnlyModel("Set", "Antworten", "Richtig", "Ø Zeit", "Zuletzt");
+        setTable = createTable(setTableModel);
+        setTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) loadSetDetails();
+        });
+
+        hardestTableModel = readOnlyModel("Original", "Übersetzung", "Richtig", "Serie", "Beste Serie");
+        JTable hardestTable = createTable(hardestTableModel);
+
+        chartTitle = Vokabeltrainer.createLabel(" ", 15, Vokabeltrainer.TEXT_SECONDARY);
+        JPanel chartPanel = new JPanel(new BorderLayout(5, 5));
+        chartPanel.setBackground(Vokabeltrainer.BG_CARD);
+        chartPanel.add(chartTitle, BorderLayout.NORTH);
+        chartPanel.add(chart, BorderLayout.CENTER);
+        chartPanel.setPreferredSize(new Dimension(400, 200));
+
+        JPanel detailPanel = new JPanel(new BorderLayout(15, 15));
+        detailPanel.setBackground(Vokabeltrainer.BG_CARD);
+        detailPanel.add(chartPanel, BorderLayout.NORTH);
+        detailPanel.add(scrollPane(hardestTable, "🧩 Schwierigste Vokabeln"), BorderLayout.CENTER);
+
+        JPanel cardPanel = new JPanel(new GridLayout(1, 2, 20, 0));
+        cardPanel.setBackground(Vokabeltrainer.BG_CARD);
+        cardPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(Vokabeltrainer.BORDER_COLOR, 2),
+            BorderFactory.createEmptyBorder(20, 20, 20, 20)
+        ));
+        cardPanel.add(scrollPane(setTable, "📚 Sets"));
+        cardPanel.add(detailPanel);
+        add(cardPanel, BorderLayout.CENTER);
+    }
+
+    private static DefaultTableModel readOnlyModel(String... columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private static JTable createTable(DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        table.setRowHeight(32);
+        table.setBackground(Vokabeltrainer.BG_DARKER);
+        table.setForeground(Vokabeltrainer.TEXT_PRIMARY);
+        table.setSelectionBackground(Vokabeltrainer.ACCENT_BLUE);
+        table.setSelectionForeground(Color.WHITE);
+        table.setGridColor(Vokabeltrainer.BORDER_COLOR);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        JTableHeader header = table.getTableHeader();
+        header.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        header.setBackground(Vokabeltrainer.BG_CARD);
+        header.setForeground(Vokabeltrainer.ACCENT_GREEN);
+        return table;
+    }
+
+    private static JPanel scrollPane(JTable table, String title) {
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.setBackground(Vokabeltrainer.BG_CARD);
+        panel.add(Vokabeltrainer.createLabel(title, 15, Vokabeltrainer.TEXT_SECONDARY), BorderLayout.NORTH);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createLineBorder(Vokabeltrainer.BORDER_COLOR, 2));
+        scrollPane.getViewport().setBackground(Vokabeltrainer.BG_DARKER);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        return panel;
+    }
+
+    /** Reloads everything; recent answers still in the log's buffer are written first. */
+    public void refresh() {
+        int gen = ++generation;
+        long today = AnswerStatistics.epochDay(System.currentTimeMillis(), java.time.ZoneId.systemDefault());
+        db.read(d -> {
+            answerLog.flush(FLUSH_TIMEOUT_MILLIS);
+            return new Object[]{d.getSetStatistics(), d.getPracticeStreak(today),
+                    d.getDailyStatistics(null, today - TREND_DAYS + 1)};
+        }).whenCompleteAsync((result, error) -> {
+            if (gen != generation) return;
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Fehler: " + AsyncDatabase.errorMessage(error));
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            List<SetStatistics> sets = (List<SetStatistics>) result[0];
+            @SuppressWarnings("unchecked")
+            List<DailyStatistics> days = (List<DailyStatistics>) result[2];
+            showSets(sets, (Integer) result[1]);
+            chartTitle.setText("📈 Alle Sets, letzte " + TREND_DAYS + " Tage");
+            chart.setDays(days, today - TREND_DAYS + 1, TREND_DAYS);
+            hardestTableModel.setRowCount(0);
+        }, AsyncDatabase.EDT);
+    }
+
+    private void showSets(List<SetStatistics> sets, int streak) {
+        setStatistics = sets;
+        long attempts = 0, correct = 0;
+        setTableModel.setRowCount(0);
+        java.text.DateFormat dateFormat = java.text.DateFormat.getDateInstance(java.text.DateFormat.MEDIUM);
+        for (SetStatistics stats : sets) {
+            attempts += stats.getAttempts();
+            correct += stats.getCorrect();
+            setTableModel.addRow(new Object[]{
+                stats.getName(),
+                String.format("%,d", stats.getAttempts()),
+                String.format("%.0f %%", stats.getAccuracy() * 100),
+                String.format("%.1f s", stats.getAverageResponseMillis() / 1000.0),
+                dateFormat.format(new java.util.Date(stats.getLastAnsweredAt()))
+            });
+        }
+        streakLabel.setText("🔥 Lernserie: " + streak + (streak == 1 ? " Tag" : " Tage"));
+        totalLabel.setText(String.format("✍ %,d Antworten", attempts));
+        accuracyLabel.setText(String.format("🎯 %.0f %% richtig", attempts > 0 ? correct * 100.0 / attempts : 0));
+    }
+
+    private void loadSetDetails() {
+        int row = setTable.getSelectedRow();
+        if (row < 0 || row >= setStatistics.size()) return;
+        SetStatistics set = setStatistics.get(row);
+        int gen = ++generation;
+        long today = AnswerStatistics.epochDay(System.currentTimeMillis(), java.time.ZoneId.systemDefault());
+        db.read(d -> new Object[]{
+            d.getDailyStatistics(set.getSetId(), today - TREND_DAYS + 1),
+            d.getHardestVokabeln(set.getSetId(), HARDEST_MIN_ATTEMPTS, HARDEST_LIMIT)
+        }).whenCompleteAsync((result, error) -> {
+            if (gen != generation) return;
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Fehler: " + AsyncDatabase.errorMessage(error));
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            List<DailyStatistics> days = (List<DailyStatistics>) result[0];
+            @SuppressWarnings("unchecked")
+            List<VokabelStatistics> hardest = (List<VokabelStatistics>) result[1];
+            chartTitle.setText("📈 " + set.getName() + ", letzte " + TREND_DAYS + " Tage");
+            chart.setDays(days, today - TREND_DAYS + 1, TREND_DAYS);
+            hardestTableModel.setRowCount(0);
+            for (VokabelStatistics stats : hardest) {
+                hardestTableModel.addRow(new Object[]{
+                    stats.getVokabel().getOriginal(),
+                    stats.getVokabel().getTranslation(),
+                    String.format("%.0f %% (%d×)", stats.getAccuracy() * 100, stats.getAttempts()),
+                    stats.getStreak(),
+                    stats.getBestStreak()
+                });
+            }
+        }, AsyncDatabase.EDT);
+    }
+
+    /** Answers per day as bars, the correct share in green. */
+    static class DailyChart extends JComponent {
+        private long[] attempts = new long[0], correct = new long[0];
+
+        DailyChart() {
+            setPreferredSize(new Dimension(400, 160));
+            setToolTipText("Antworten pro Tag (grün: richtig)");
+        }
+
+        void setDays(List<DailyStatistics> days, long firstDay, int dayCount) {
+            attempts = new long[dayCount];
+            correct = new long[dayCount];
+            for (DailyStatistics day : days) {
+                int index = (int) (day.getDay() - firstDay);
+                if (index < 0 || index >= dayCount) continue;
+                attempts[index] = day.getAttempts();
+                correct[index] = day.getCorrect();
+            }
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(Vokabeltrainer.BG_DARKER);
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            long max = 1;
+            for (long a : attempts) max = Math.max(max, a);
+            int n = attempts.length;
+            if (n > 0) {
+                double barWidth = (double) getWidth() / n;
+                int height = getHeight() - 4;
+                for (int i = 0; i < n; i++) {
+                    int x = (int) (i * barWidth) + 1, w = Math.max(1, (int) barWidth - 2);
+                    int total = (int) (attempts[i] * height / max), right = (int) (correct[i] * height / max);
+                    g2.setColor(Vokabeltrainer.ACCENT_RED);
+                    g2.fillRect(x, getHeight() - total, w, total - right);
+                    g2.setColor(Vokabeltrainer.ACCENT_GREEN);
+                    g2.fillRect(x, getHeight() - right, w, right);
+                }
+            }
+            g2.dispose();
+        }
+    }
+}
+
+/**
+ * Multi-user HTTP/JSON mode ({@code java vokabeltrainer.Vokabeltrainer --server}) on the JDK's built-in HTTP server.
+ * Requests run on virtual threads when the JVM has them (Java 21+) and on a fixed pool otherwise;
+ * they call the shared {@link CachingDatabaseManager} directly, so reads fan out over its read
+ * connections. Quiz state lives in per-user {@link QuizSession}s that expire when idle.
+ *
+ * <pre>
+ * GET    /api/sets                          all sets
+ * GET    /api/sets/{id}/vokabeln?after=&amp;limit=  one page, ordered by id
+ * POST   /api/sessions?set=&amp;direction=       start a quiz, returns the first question
+ * GET    /api/sessions/{token}              current question and score
+ * POST   /api/sessions/{token}/answer?answer=  check an answer and move to the next question
+ * DELETE /api/sessions/{token}              end a quiz
+ * GET    /api/metrics                       latency histograms (see {@link Metrics})
+ * </pre>
+ */
+class VokabelServer {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final LatencyHistogram REQUEST_TIME = Metrics.histogram("http.request");
+
+    // One prepared copy of a set's answers, shared by every session quizzing that set
+    static class QuizDeck {
+        final List<Vokabel> vokabeln;
+        final Map<Integer, AnswerMatcher.PreparedAnswer[]> preparedAnswers;
+        final long loadedAt;
+
+        QuizDeck(List<Vokabel> vokabeln, Map<Integer, AnswerMatcher.PreparedAnswer[]> preparedAnswers, long loadedAt) {
+            this.vokabeln = vokabeln;
+            this.preparedAnswers = preparedAnswers;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    static class ServerSession {
+        final QuizSession quiz;
+        final int setId;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        ServerSession(QuizSession quiz, int setId) {
+            this.quiz = quiz;
+            this.setId = setId;
+        }
+    }
+
+    static class HttpError extends Exception {
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final DatabaseManager db;
+    private final AnswerMatcher matcher;
+    private final AnswerLog answerLog;
+    private final int port, maxSessions;
+    private final long sessionTimeoutMillis, deckMaxAgeMillis;
+    private final Map<String, ServerSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Integer, QuizDeck> decks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Vokabeltrainer-Sessions");
+        t.setDaemon(true);
+        return t;
+    });
+    private com.sun.net.httpserver.HttpServer server;
+    private ExecutorService executor;
+
+    VokabelServer(DatabaseManager db, AppConfig config) {
+        this.db = db;
+        this.matcher = AnswerMatcher.fromConfig(config);
+        this.answerLog = new AnswerLog(db, config);
+        this.port = config.getInt("server.port", 8080);
+        this.maxSessions = config.getInt("server.max_sessions", 10_000);
+        this.sessionTimeoutMillis = config.getLong("server.session_timeout_minutes", 60) * 60_000;
+        this.deckMaxAgeMillis = config.getLong("server.deck_max_age_seconds", 30) * 1000;
+        this.executor = newExecutor(config.getInt("server.threads", 64));
+    }
+
+    public static void main(String[] args) throws Exception {
+        AppConfig config = AppConfig.load();
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) config = config.with("server.port", arg.substring(7));
+        }
+        // Many concurrent readers: give the pool more connections than the desktop app needs
+        config = config.withDefault("db.read_connections",
+                String.valueOf(Math.max(8, Runtime.getRuntime().availableProcessors() * 2)));
+        Metrics.install(config);
+        DatabaseManager db = new CachingDatabaseManager(config);
+        db.initialize();
+        VokabelServer server = new VokabelServer(db, config);
+        server.start();
+        BackupManager backups = new BackupManager(db, config);
+        backups.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            backups.close();
+            server.stop();
+            db.close();
+        }));
+        System.out.println("Vokabeltrainer-Server läuft auf http://localhost:" + server.getPort() + "/api/sets");
+    }
+
+    /** A virtual thread per request on Java 21+, looked up reflectively so the file still builds on 17. */
+    static ExecutorService newExecutor(int fallbackThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(fallbackThreads, r -> {
+                Thread t = new Thread(r, "Vokabeltrainer-HTTP-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() throws IOException {
+        server = com.sun.net.httpserver.HttpServer.create(new java.net.InetSocketAddress(port), 1024);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        sweeper.scheduleAtFixedRate(this::expireSessions, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public void stop() {
+        sweeper.shutdownNow();
+        if (server != null) server.stop(1);
+        executor.shutdownNow();
+        answerLog.close();
+    }
+
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void expireSessions() {
+        long cutoff = System.currentTimeMillis() - sessionTimeoutMillis;
+        sessions.values().removeIf(s -> s.lastAccess < cutoff);
+    }
+
+    private void handle(com.sun.net.httpserver.HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        int status = 200;
+        String body;
+        try {
+            body = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath().split("/"), parameters(exchange));
+        } catch (HttpError e) {
+            status = e.status;
+            body = "{\"error\":" + quote(e.getMessage()) + "}";
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 500;
+            body = "{\"error\":" + quote(String.valueOf(e.getMessage())) + "}";
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        REQUEST_TIME.recordSince(start);
+    }
+
+    // path[0] is empty and path[1] is "api"
+    private String route(String method, String[] path, Map<String, String> params) throws Exception {
+        String resource = path.length > 2 ? path[2] : "";
+        if (resource.equals("metrics") && path.length == 3) return Metrics.toJson();
+        if (resource.equals("sets")) {
+            if (!method.equals("GET")) throw new HttpError(405, "Methode nicht erlaubt");
+            if (path.length == 3) return setsJson();
+            if (path.length == 5 && path[4].equals("vokabeln")) {
+                return vokabelnJson(parseInt(path[3], "set"), intParam(params, "after", 0),
+                        Math.min(MAX_PAGE_SIZE, intParam(params, "limit", 100)));
+            }
+        } else if (resource.equals("sessions")) {
+            if (path.length == 3 && method.equals("POST")) {
+                return createSession(intParam(params, "set", -1), params.getOrDefault("direction", "FORWARD"));
+            }
+            if (path.length >= 4) {
+                ServerSession session = sessions.get(path[3]);
+                if (session == null) throw new HttpError(404, "Sitzung nicht gefunden");
+                session.lastAccess = System.currentTimeMillis();
+                if (path.length == 4 && method.equals("GET")) return sessionJson(path[3], session, null);
+                if (path.length == 4 && method.equals("DELETE")) {
+                    sessions.remove(path[3]);
+                    return "{}";
+                }
+                if (path.length == 5 && path[4].equals("answer") && method.equals("POST")) {
+                    return answer(path[3], session, params.getOrDefault("answer", ""));
+                }
+            }
+        }
+        throw new HttpError(404, "Unbekannter Pfad");
+    }
+
+    private String setsJson() {
+        StringBuilder sb = new StringBuilder("[");
+        for (VokabelSet set : db.getAllSets()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"id\":").append(set.getId()).append(",\"name\":").append(quote(set.getName())).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private String vokabelnJson(int setId, int afterId, int limit) throws SQLException {
+        StringBuilder sb = new StringBuilder("[");
+        for (Vokabel v : db.getVokabelPage(setId, afterId, limit)) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"id\":").append(v.getId())
+              .append(",\"original\":").append(quote(v.getOriginal()))
+              .append(",\"translation\":").append(quote(v.getTranslation())).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private String createSession(int setId, String direction) throws Exception {
+        if (sessions.size() >= maxSessions) throw new HttpError(503, "Zu viele offene Sitzungen");
+        QuizSession.Direction dir;
+        try {
+            dir = QuizSession.Direction.valueOf(direction.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Unbekannte Richtung: " + direction);
+        }
+        QuizDeck deck = deck(setId);
+        if (deck.vokabeln.isEmpty()) throw new HttpError(404, "Set leer oder nicht gefunden");
+        QuizSession quiz = QuizSession.of(deck.vokabeln, deck.preparedAnswers, matcher, dir, new Random())
+                .logTo(answerLog, setId);
+        quiz.next();
+        String token = UUID.randomUUID().toString();
+        ServerSession session = new ServerSession(quiz, setId);
+        sessions.put(token, session);
+        return sessionJson(token, session, null);
+    }
+
+    /** The set's vokabeln and prepared answers, reloaded when older than server.deck_max_age_seconds. */
+    private QuizDeck deck(int setId) {
+        long now = System.currentTimeMillis();
+        QuizDeck deck = decks.get(setId);
+        if (deck != null && now - deck.loadedAt < deckMaxAgeMillis) return deck;
+        // compute() makes concurrent starts on the same set wait for one load instead of each preparing it
+        return decks.compute(setId, (id, existing) -> {
+            if (existing != null && now - existing.loadedAt < deckMaxAgeMillis) return existing;
+            List<Vokabel> vokabeln = Collections.unmodifiableList(db.getVokabelnBySet(id));
+            return new QuizDeck(vokabeln, matcher.prepareAll(vokabeln), now);
+        });
+    }
+
+    private String answer(String token, ServerSession session, String answer) throws HttpError {
+        AnswerMatcher.Verdict verdict;
+        String expected;
+        // A session belongs to one user, but double-submits can still race
+        synchronized (session) {
+            if (session.quiz.getState() != QuizSession.State.ASKING) throw new HttpError(409, "Quiz ist beendet");
+            verdict = session.quiz.answer(answer);
+            expected = session.quiz.getExpected();
+            session.quiz.next();
+        }
+        return sessionJson(token, session, "\"verdict\":\"" + verdict + "\",\"expected\":" + quote(expected) + ",");
+    }
+
+    private String sessionJson(String token, ServerSession session, String lastAnswer) {
+        QuizSession quiz = session.quiz;
+        synchronized (session) {
+            StringBuilder sb = new StringBuilder("{");
+            if (lastAnswer != null) sb.append(lastAnswer);
+            sb.append("\"session\":").append(quote(token))
+              .append(",\"set\":").append(session.setId)
+              .append(",\"state\":\"").append(quiz.getState()).append('"');
+            if (quiz.getState() == QuizSession.State.ASKING) {
+                sb.append(",\"prompt\":").append(quote(quiz.getPrompt()))
+                  .append(",\"reverse\":").append(quiz.isReverse());
+            }
+            return sb.append(",\"position\":").append(quiz.getPosition())
+                     .append(",\"size\":").append(quiz.getSize())
+                     .append(",\"correct\":").append(quiz.getCorrectCount())
+                     .append(",\"total\":").append(quiz.getTotalCount()).append('}').toString();
+        }
+    }
+
+    private static Map<String, String> parameters(com.sun.net.httpserver.HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseQuery(exchange.getRequestURI().getRawQuery(), params);
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                parseQuery(new String(in.readAllBytes(), StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseQuery(String query, Map<String, String> params) {
+        if (query == null || query.isEmpty()) return;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = java.net.URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? java.net.URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.put(key, value);
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) throws HttpError {
+        String value = params.get(name);
+        return value == null ? defaultValue : parseInt(value, name);
+    }
+
+    private static int parseInt(String value, String name) throws HttpError {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Ungültiger Wert für " + name + ": " + value);
+        }
+    }
+
+    static String quote(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
+
+/**
+ * Open-loop load generator for {@link VokabelServer} ({@code java vokabeltrainer.Vokabeltrainer --loadtest}).
+ * Starts one quiz session per simulated student, then fires requests at a fixed rate regardless of
+ * how fast answers come back; latency is measured from each request's scheduled send time, so a
+ * stalled server shows up in the percentiles instead of just lowering the request rate.
+ * Without {@code --url=} an embedded server on a free port is started against the configured database.
+ * <p>
+ * The generator is the expensive side: per request the java.net.http client costs three to four
+ * times the CPU of the server handling it. In one JVM on a single core, three quarters of the CPU
+ * went to the client and its pacing thread, and the run levelled off at 850-1,150 requests/s. The
+ * server's own share of that core puts it at several thousand requests/s. To measure the server
+ * rather than the client, run the generator on other cores or another machine with {@code --url=}.
+ */
+class VokabelLoadTest {
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int rate = 10_000, seconds = 10, students = 500, setId = -1;
+        for (String arg : args) {
+            if (arg.startsWith("--url=")) url = arg.substring(6);
+            else if (arg.startsWith("--rate=")) rate = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--seconds=")) seconds = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--students=")) students = Integer.parseInt(arg.substring(11));
+            else if (arg.startsWith("--set=")) setId = Integer.parseInt(arg.substring(6));
+        }
+
+        VokabelServer embedded = null;
+        DatabaseManager db = null;
+        if (url == null) {
+            AppConfig config = AppConfig.load().with("server.port", "0")
+                    .withDefault("db.read_connections", String.valueOf(Math.max(8, Runtime.getRuntime().availableProcessors() * 2)));
+            db = new CachingDatabaseManager(config);
+            db.initialize();
+            if (setId < 0) setId = firstNonEmptySet(db);
+            embedded = new VokabelServer(db, config);
+            embedded.start();
+            url = "http://localhost:" + embedded.getPort();
+        }
+        if (setId < 0) throw new IllegalArgumentException("Kein Set mit Vokabeln gefunden, bitte --set= angeben");
+        try {
+            new VokabelLoadTest(url, setId, students).run(rate, seconds);
+        } finally {
+            if (embedded != null) embedded.stop();
+            if (db != null) db.close();
+        }
+    }
+
+    private static int firstNonEmptySet(DatabaseManager db) throws SQLException {
+        for (VokabelSet set : db.getAllSets()) {
+            if (db.countVokabeln(set.getId()) > 0) return set.getId();
+        }
+        return -1;
+    }
+
+    private final String baseUrl;
+    private final int setId;
+    private final String[] tokens;
+    private final java.net.http.HttpClient client;
+    private final AtomicLong errors = new AtomicLong(), restarts = new AtomicLong();
+
+    VokabelLoadTest(String baseUrl, int setId, int students) {
+        this.baseUrl = baseUrl;
+        this.setId = setId;
+        this.tokens = new String[students];
+        this.client = java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors())))
+                .build();
+    }
+
+    void run(int rate, int seconds) throws Exception {
+        List<CompletableFuture<?>> starts = new ArrayList<>();
+        for (int i = 0; i < tokens.length; i++) starts.add(startSession(i));
+        CompletableFuture.allOf(starts.toArray(new CompletableFuture<?>[0])).join();
+        System.out.printf("%d Sitzungen gestartet, Ziel %,d Anfragen/s für %d s gegen %s%n",
+                tokens.length, rate, seconds, baseUrl);
+
+        int total = rate * seconds;
+        long[] latencies = new long[total];
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[total];
+        long intervalNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) java.util.concurrent.locks.LockSupport.parkNanos(wait);
+            int request = i;
+            pending[i] = send(request).whenComplete((ignored, error) -> {
+                latencies[request] = System.nanoTime() - scheduled;
+                if (error != null) errors.incrementAndGet();
+            });
+        }
+        try {
+            CompletableFuture.allOf(pending).get(60, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // counted per request above
+        } catch (TimeoutException e) {
+            // reported below; their latency is at least the time waited
+        }
+        long end = System.nanoTime();
+        double elapsed = (end - start) / 1e9;
+        int unanswered = 0;
+        for (int i = 0; i < total; i++) {
+            if (!pending[i].isDone()) {
+                unanswered++;
+                latencies[i] = end - (start + i * intervalNanos);
+            }
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%,d Anfragen in %.1f s (%,.0f/s), Fehler: %,d, ohne Antwort: %,d, neu gestartete Quiz: %,d%n",
+                total, elapsed, (total - unanswered) / elapsed, errors.get(), unanswered, restarts.get());
+        System.out.printf("Latenz p50 %.2f ms  p90 %.2f ms  p99 %.2f ms  p99.9 %.2f ms  max %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    /** Nine in ten requests answer a question, the rest list the sets. */
+    private CompletableFuture<?> send(int request) {
+        if (request % 10 == 0) return get("/api/sets");
+        int student = request % tokens.length;
+        String answer = ThreadLocalRandom.current().nextBoolean() ? "falsch" : "vielleicht";
+        return post("/api/sessions/" + tokens[student] + "/answer?answer=" + answer).thenCompose(response -> {
+            // Finished (or expired) quizzes start over, like a student pressing "Quiz starten" again
+            if (response.statusCode() == 409 || response.statusCode() == 404 || response.body().contains("\"FINISHED\"")) {
+                restarts.incrementAndGet();
+                return startSession(student);
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private CompletableFuture<?> startSession(int student) {
+        return post("/api/sessions?set=" + setId + "&direction=MIXED").thenAccept(response -> {
+            String body = response.body();
+            int at = body.indexOf("\"session\":\"");
+            if (response.statusCode() != 200 || at < 0) {
+                throw new IllegalStateException("Sitzung konnte nicht gestartet werden: " + body);
+            }
+            tokens[student] = body.substring(at + 11, body.indexOf('"', at + 11));
+        });
+    }
+
+    private CompletableFuture<java.net.http.HttpResponse<String>> get(String path) {
+        return send(java.net.http.HttpRequest.newBuilder(java.net.URI.create(baseUrl + path)).GET().build());
+    }
+
+    private CompletableFuture<java.net.http.HttpResponse<String>> post(String path) {
+        return send(java.net.http.HttpRequest.newBuilder(java.net.URI.create(baseUrl + path))
+                .POST(java.net.http.HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private CompletableFuture<java.net.http.HttpResponse<String>> send(java.net.http.HttpRequest request) {
+        return client.sendAsync(request, java.net.http.HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() >= 500) throw new IllegalStateException("HTTP " + response.statusCode());
+            return response;
+        });
+    }
+}
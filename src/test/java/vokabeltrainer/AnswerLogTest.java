@@ -0,0 +1,165 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AnswerLogTest {
+    private static final int EVENTS_PER_SECOND = 100_000, SECONDS = 5, BURST = 100, BUFFER = 20_000;
+    // Answers spread over a set of this many vokabeln, each one gets its statistics row updated
+    private static final int SET_SIZE = 1_000;
+
+    @TempDir
+    Path dir;
+
+    /** Fails every write, like a full or unplugged disk. */
+    static class FailingDatabaseManager extends DatabaseManager {
+        FailingDatabaseManager(AppConfig config) {
+            super(config);
+        }
+
+        @Override
+        public void insertAnswerEvents(List<AnswerEvent> events) throws SQLException {
+            throw new SQLException("disk I/O error");
+        }
+    }
+
+    private static AnswerEvent event(int n, int setId) {
+        AnswerMatcher.Verdict[] verdicts = AnswerMatcher.Verdict.values();
+        return new AnswerEvent(n / 20, 1 + n % SET_SIZE, setId, (n & 1) == 0, verdicts[n % verdicts.length], n % 5_000,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Appends arrive at 100k events/s in bursts of {@value #BURST} for {@value #SECONDS} s. With a
+     * buffer of {@value #BUFFER} events the writer has to average at least 96k events/s or appends
+     * start to be dropped; nothing may be dropped and everything ends up in the table. A first
+     * second at the same rate warms up the writer, as it would be after a few minutes of use.
+     */
+    @Test
+    void sustains100kEventsPerSecond() throws Exception {
+        DatabaseManager db = new DatabaseManager(TestDatabase.config(dir));
+        db.initialize();
+        int setId = TestDatabase.createSet(db, "Englisch");
+        int total = EVENTS_PER_SECOND * SECONDS;
+        AnswerLog log = new AnswerLog(db, TestDatabase.config(dir, "answer_log.max_unflushed", Integer.toString(BUFFER)));
+        try {
+            appendPaced(log, setId, EVENTS_PER_SECOND);
+            log.flush(10_000);
+            long warmup = log.getWrittenCount();
+            long droppedBefore = log.getDroppedCount();
+
+            long start = System.nanoTime();
+            long slowestAppend = appendPaced(log, setId, total);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.flush(10_000);
+            double rate = total / ((System.nanoTime() - start) / 1e9);
+
+            assertEquals(0, log.getDroppedCount() - droppedBefore, "events dropped");
+            assertEquals(total, log.getWrittenCount() - warmup);
+            assertEquals(total + warmup, db.countAnswerEvents());
+            assertTrue(seconds < SECONDS * 1.2, String.format("appending took %.2f s", seconds));
+            assertTrue(rate >= EVENTS_PER_SECOND * 0.9, String.format("%.0f events/s committed", rate));
+            assertTrue(slowestAppend < TimeUnit.MILLISECONDS.toNanos(50),
+                    "an append waited " + TimeUnit.NANOSECONDS.toMillis(slowestAppend) + " ms");
+        } finally {
+            log.close();
+            db.close();
+        }
+    }
+
+    /** Appends {@code count} events at {@value #EVENTS_PER_SECOND}/s and returns the slowest append in ns. */
+    private static long appendPaced(AnswerLog log, int setId, int count) throws InterruptedException {
+        long start = System.nanoTime();
+        long slowestAppend = 0;
+        for (int n = 0; n < count; n += BURST) {
+            long wait = start + (long) n * 1_000_000_000L / EVENTS_PER_SECOND - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+            for (int i = n; i < n + BURST; i++) {
+                long before = System.nanoTime();
+                log.append(event(i, setId));
+                slowestAppend = Math.max(slowestAppend, System.nanoTime() - before);
+            }
+        }
+        return slowestAppend;
+    }
+
+    @Test
+    void fullBufferDropsInsteadOfBlockingAndFlushReportsTheError() throws Exception {
+        AppConfig config = TestDatabase.config(dir, "answer_log.max_unflushed", "100", "answer_log.flush_millis", "10");
+        DatabaseManager db = new FailingDatabaseManager(config);
+        db.initialize();
+        AnswerLog log = new AnswerLog(db, config);
+        try {
+            long start = System.nanoTime();
+            int accepted = 0;
+            for (int n = 0; n < 1_000; n++) {
+                if (log.append(event(n, 1))) accepted++;
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "appends must not wait for the writer");
+            assertEquals(100, accepted);
+            assertEquals(900, log.getDroppedCount());
+
+            start = System.nanoTime();
+            SQLException error = assertThrows(SQLException.class, () -> log.flush(30_000));
+            assertFalse(error instanceof SQLTimeoutException, "flush should fail with the write error, not time out");
+            assertEquals("disk I/O error", error.getCause().getMessage());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "flush must not wait out the retries");
+        } finally {
+            log.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void flushGivesUpAfterTheTimeout() throws Exception {
+        AppConfig config = TestDatabase.config(dir);
+        DatabaseManager db = new DatabaseManager(config) {
+            @Override
+            public void insertAnswerEvents(List<AnswerEvent> events) throws SQLException {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.insertAnswerEvents(events);
+            }
+        };
+        db.initialize();
+        int setId = TestDatabase.createSet(db, "Englisch");
+        AnswerLog log = new AnswerLog(db, config);
+        try {
+            log.append(event(0, setId));
+            assertThrows(SQLTimeoutException.class, () -> log.flush(200));
+            log.flush(10_000);
+            assertEquals(1, db.countAnswerEvents());
+        } finally {
+            log.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void closeWritesWhatIsLeft() throws Exception {
+        AppConfig config = TestDatabase.config(dir, "answer_log.flush_millis", "60000");
+        DatabaseManager db = new DatabaseManager(config);
+        db.initialize();
+        int setId = TestDatabase.createSet(db, "Englisch");
+        AnswerLog log = new AnswerLog(db, config);
+        for (int n = 0; n < 10; n++) log.append(event(n, setId));
+        log.close();
+        assertFalse(log.append(event(10, setId)));
+        assertEquals(10, db.countAnswerEvents());
+        db.close();
+    }
+}
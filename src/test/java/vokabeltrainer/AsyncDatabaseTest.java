@@ -0,0 +1,231 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The EDT keeps running while every database call takes {@value #DELAY_MILLIS} ms, the way the
+ * shared database behaves on a slow disk. A probe thread measures how long the EDT takes to
+ * pick up an empty task the whole time.
+ */
+class AsyncDatabaseTest {
+    private static final long DELAY_MILLIS = 250;
+    private static final long MAX_EDT_STALL_MILLIS = 50;
+
+    /** Every call waits like a slow JDBC round trip before it reaches the database. */
+    static class SlowDatabaseManager extends DatabaseManager {
+        SlowDatabaseManager(AppConfig config) {
+            super(config);
+        }
+
+        private static void delay() {
+            try {
+                Thread.sleep(DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void initialize() throws SQLException {
+            delay();
+            super.initialize();
+        }
+
+        @Override
+        public List<VokabelSet> getAllSets() {
+            delay();
+            return super.getAllSets();
+        }
+
+        @Override
+        public List<Vokabel> getVokabelnBySet(int setId) {
+            delay();
+            return super.getVokabelnBySet(setId);
+        }
+
+        @Override
+        public int addVokabel(int setId, String original, String translation) throws SQLException {
+            delay();
+            return super.addVokabel(setId, original, translation);
+        }
+
+        @Override
+        public void deleteSet(int setId) throws SQLException {
+            delay();
+            super.deleteSet(setId);
+        }
+    }
+
+    /** Posts empty tasks to the EDT back to back and keeps the longest wait. */
+    static class EdtProbe implements AutoCloseable {
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final AtomicLong maxStallNanos = new AtomicLong();
+        private final Thread thread = new Thread(this::run, "EDT-Probe");
+
+        EdtProbe() {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void run() {
+            while (running.get()) {
+                long posted = System.nanoTime();
+                try {
+                    SwingUtilities.invokeAndWait(() -> { });
+                    Thread.sleep(1);
+                } catch (Exception e) {
+                    return;
+                }
+                maxStallNanos.accumulateAndGet(System.nanoTime() - posted, Math::max);
+            }
+        }
+
+        long maxStallMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxStallNanos.get());
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            running.set(false);
+            thread.join();
+        }
+    }
+
+    @TempDir
+    Path dir;
+    private SlowDatabaseManager db;
+    private AsyncDatabase async;
+
+    @BeforeAll
+    static void startEdt() throws Exception {
+        // Starting the event thread itself is not a stall
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    @BeforeEach
+    void setUp() {
+        db = new SlowDatabaseManager(TestDatabase.config(dir));
+        async = new AsyncDatabase(db);
+    }
+
+    @AfterEach
+    void tearDown() {
+        async.shutdown();
+    }
+
+    @Test
+    void edtStaysResponsiveWhileCallsAreSlow() throws Exception {
+        async.initializeInBackground().get(10, TimeUnit.SECONDS);
+        int setId = TestDatabase.createSet(db, "Englisch");
+        int otherSetId = TestDatabase.createSet(db, "Französisch");
+        db.addVokabel(setId, "Haus", "house");
+
+        List<CompletableFuture<?>> results = new ArrayList<>();
+        AtomicBoolean allOnEdt = new AtomicBoolean(true);
+        long[] edtCallNanos = new long[1];
+        try (EdtProbe probe = new EdtProbe()) {
+            SwingUtilities.invokeAndWait(() -> {
+                long start = System.nanoTime();
+                results.add(async.getAllSets().thenAcceptAsync(sets -> checkEdt(allOnEdt), AsyncDatabase.EDT));
+                results.add(async.getVokabelnBySet(setId).thenAcceptAsync(list -> checkEdt(allOnEdt), AsyncDatabase.EDT));
+                results.add(async.addVokabel(setId, "Hund", "dog").thenAcceptAsync(id -> checkEdt(allOnEdt), AsyncDatabase.EDT));
+                results.add(async.deleteSet(otherSetId).thenAcceptAsync(v -> checkEdt(allOnEdt), AsyncDatabase.EDT));
+                edtCallNanos[0] = System.nanoTime() - start;
+            });
+            long start = System.nanoTime();
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS),
+                    "the slow calls should have taken at least one delay");
+            assertTrue(probe.maxStallMillis() < MAX_EDT_STALL_MILLIS, "EDT stalled for " + probe.maxStallMillis() + " ms");
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(edtCallNanos[0]) < MAX_EDT_STALL_MILLIS,
+                "submitting took " + TimeUnit.NANOSECONDS.toMillis(edtCallNanos[0]) + " ms on the EDT");
+        assertTrue(allOnEdt.get(), "results must be applied on the EDT");
+        assertEquals(2, db.getVokabelnBySet(setId).size());
+    }
+
+    @Test
+    void callsBeforeStartupWaitWithoutBlockingTheEdt() throws Exception {
+        CompletableFuture<Void> ready;
+        CompletableFuture<List<VokabelSet>> sets;
+        try (EdtProbe probe = new EdtProbe()) {
+            ready = async.initializeInBackground();
+            CompletableFuture<CompletableFuture<List<VokabelSet>>> submitted = new CompletableFuture<>();
+            SwingUtilities.invokeLater(() -> submitted.complete(async.getAllSets()));
+            sets = submitted.get(10, TimeUnit.SECONDS);
+            assertFalse(ready.isDone(), "startup should still be running");
+            sets.get(10, TimeUnit.SECONDS);
+            assertTrue(probe.maxStallMillis() < MAX_EDT_STALL_MILLIS, "EDT stalled for " + probe.maxStallMillis() + " ms");
+        }
+        assertTrue(ready.isDone() && !ready.isCompletedExceptionally());
+        assertTrue(sets.get().isEmpty());
+    }
+
+    /** A read issued while a long import runs is answered between two chunks, not after the whole file. */
+    @Test
+    void readsRunBetweenImportChunks() throws Exception {
+        async.initializeInBackground().get(10, TimeUnit.SECONDS);
+        int setId = TestDatabase.createSet(db, "Englisch");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) csv.append("wort").append(i).append(",word").append(i).append('\n');
+        Path file = Files.writeString(dir.resolve("import.csv"), csv);
+
+        List<Integer> countsDuringImport = new ArrayList<>();
+        VokabelImporter.ImportResult result = async.importFile(async.newImporter(1_000), file, setId,
+                (rows, bytesRead, totalBytes, rowsPerSecond) -> {
+                    if (!countsDuringImport.isEmpty()) return;
+                    try {
+                        // Waits on the import thread: a read queued behind the whole import would never return
+                        countsDuringImport.add(async.read(d -> d.countVokabeln(setId)).get(5, TimeUnit.SECONDS));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }).get(30, TimeUnit.SECONDS);
+        assertEquals(10_000, result.rows);
+        assertEquals(List.of(1_000), countsDuringImport);
+    }
+
+    /** A database that cannot be opened fails startup and every later call with the real cause. */
+    @Test
+    void failedStartupReachesEveryCaller() throws Exception {
+        AsyncDatabase broken = new AsyncDatabase(new DatabaseManager(
+                TestDatabase.config(dir, "db.url", "jdbc:sqlite:" + dir.resolve("fehlt").resolve("test.db"))));
+        try {
+            ExecutionException startup = assertThrows(ExecutionException.class,
+                    () -> broken.initializeInBackground().get(10, TimeUnit.SECONDS));
+            assertTrue(startup.getCause() instanceof SQLException, "startup failed with " + startup.getCause());
+            ExecutionException sets = assertThrows(ExecutionException.class,
+                    () -> broken.getAllSets().get(10, TimeUnit.SECONDS));
+            assertSame(startup.getCause(), sets.getCause());
+            assertTrue(AsyncDatabase.errorMessage(sets).startsWith("Die Datenbank konnte nicht geöffnet werden"));
+        } finally {
+            broken.shutdown();
+        }
+    }
+
+    private static void checkEdt(AtomicBoolean allOnEdt) {
+        if (!SwingUtilities.isEventDispatchThread()) allOnEdt.set(false);
+    }
+}
@@ -0,0 +1,75 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Restore checks and reads a private copy; the file the user picked is never written. */
+class BackupManagerTest {
+    @TempDir
+    Path dir;
+    private DatabaseManager db;
+    private BackupManager backups;
+    private int setId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AppConfig config = TestDatabase.config(dir, "backup.dir", dir.resolve("backups").toString(),
+                "backup.interval_minutes", "0");
+        db = new DatabaseManager(config);
+        db.initialize();
+        setId = TestDatabase.createSet(db, "Englisch");
+        db.addVokabel(setId, "Haus", "house");
+        backups = new BackupManager(db, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backups.close();
+        db.close();
+    }
+
+    @Test
+    void restoreLeavesTheChosenFileUntouched() throws Exception {
+        Path file = backups.snapshot(null).file;
+        Path chosen = Files.copy(file, dir.resolve("gewaehlt.db"));
+        FileTime modified = Files.getLastModifiedTime(chosen);
+        byte[] content = Files.readAllBytes(chosen);
+        db.addVokabel(setId, "Baum", "tree");
+
+        backups.restore(chosen, null);
+        assertEquals(1, db.countVokabeln(setId));
+        assertArrayEquals(content, Files.readAllBytes(chosen));
+        assertEquals(modified, Files.getLastModifiedTime(chosen));
+        assertTrue(Files.notExists(dir.resolve("gewaehlt.db-journal")));
+        try (Stream<Path> files = Files.list(backups.getDirectory())) {
+            assertTrue(files.noneMatch(f -> f.toString().endsWith(".part")), "the checked copy is removed");
+        }
+    }
+
+    @Test
+    void corruptFileIsRejectedBeforeAnythingIsReplaced() throws Exception {
+        Path file = backups.snapshot(null).file;
+        byte[] content = Files.readAllBytes(file);
+        // Overwrite the middle of the file, past the header, with garbage
+        for (int i = content.length / 2; i < content.length / 2 + 4096 && i < content.length; i++) content[i] = (byte) 0xA5;
+        Path corrupt = Files.write(dir.resolve("kaputt.db"), content);
+        int snapshotsBefore = backups.listSnapshots().size();
+
+        assertThrows(SQLException.class, () -> backups.restore(corrupt, null));
+        assertEquals(1, db.countVokabeln(setId));
+        assertEquals(snapshotsBefore, backups.listSnapshots().size(), "no snapshot of the current state was needed");
+    }
+}
@@ -0,0 +1,58 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Every cache lookup counts as a hit or a miss; a delete drops its set from the cache. */
+class CachingDatabaseManagerTest {
+    @TempDir
+    Path dir;
+    private CachingDatabaseManager db;
+    private int setId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new CachingDatabaseManager(TestDatabase.config(dir));
+        db.initialize();
+        db.setUndoJournal(new UndoJournal(UndoJournal.DEFAULT_MAX_BYTES));
+        setId = TestDatabase.createSet(db, "Englisch");
+        db.addVokabel(setId, "Haus", "house");
+        db.addVokabel(setId, "Baum", "tree");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void pagedReadsCountMissesToo() throws Exception {
+        long hits = db.getHitCount(), misses = db.getMissCount();
+        assertEquals(2, db.countVokabeln(setId));
+        assertEquals(misses + 1, db.getMissCount());
+
+        db.getVokabelnBySet(setId);
+        assertEquals(misses + 2, db.getMissCount());
+        assertEquals(2, db.getVokabelPageAt(setId, 0, 10).size());
+        assertEquals(hits + 1, db.getHitCount());
+    }
+
+    @Test
+    void deleteInvalidatesItsSet() throws Exception {
+        int id = db.getVokabelnBySet(setId).get(0).getId();
+        db.deleteVokabel(id);
+        assertEquals(1, db.countVokabeln(setId));
+        assertEquals(1, db.getVokabelnBySet(setId).size());
+
+        db.undo();
+        assertEquals(id, db.getVokabelnBySet(setId).get(0).getId());
+        db.deleteVokabel(-1);
+        assertEquals(2, db.countVokabeln(setId));
+    }
+}
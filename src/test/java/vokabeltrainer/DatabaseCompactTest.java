@@ -0,0 +1,65 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Background compaction only takes small steps; converting an older file is a separate, explicit step. */
+class DatabaseCompactTest {
+    @TempDir
+    Path dir;
+    private DatabaseManager db;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // A file from before incremental auto-vacuum: not empty, so opening it cannot switch the mode
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("test.db"));
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE vorher (x)");
+        }
+        db = new DatabaseManager(TestDatabase.config(dir));
+        db.initialize();
+        int setId = TestDatabase.createSet(db, "Englisch");
+        for (int i = 0; i < 2_000; i++) db.addVokabel(setId, "wort" + i, "word" + i);
+        db.deleteSet(setId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    private int autoVacuum() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("test.db"));
+             Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void compactLeavesUnconvertedFilesAlone() throws Exception {
+        assertEquals(0, autoVacuum());
+        assertEquals(0, db.compact(256));
+        assertEquals(0, autoVacuum(), "no full VACUUM behind the user's back");
+    }
+
+    @Test
+    void conversionRunsOnceOnRequest() throws Exception {
+        assertTrue(db.enableIncrementalVacuum());
+        assertEquals(2, autoVacuum());
+        assertFalse(db.enableIncrementalVacuum());
+        assertEquals(0, db.compact(256));
+    }
+}
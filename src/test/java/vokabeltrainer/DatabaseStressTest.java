@@ -0,0 +1,176 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Dozens of threads share one {@link DatabaseManager}: readers on the read connections, writers
+ * serialized on the write connection. Nothing may fail and every read must see a consistent set.
+ */
+class DatabaseStressTest {
+    private static final int READERS = 24, WRITERS = 8, OPERATIONS = 200;
+    private static final int INITIAL_ROWS = 2_000;
+
+    @TempDir
+    Path dir;
+    private DatabaseManager db;
+    private int setId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseManager(TestDatabase.config(dir));
+        db.initialize();
+        setId = TestDatabase.createSet(db, "Stress");
+        List<String[]> rows = new ArrayList<>(INITIAL_ROWS);
+        for (int i = 0; i < INITIAL_ROWS; i++) rows.add(new String[]{"wort" + i, "word" + i});
+        db.insertVokabelnBatch(setId, rows, DuplicatePolicy.KEEP_BOTH, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void concurrentReadersAndWritersSeeNoErrors() throws Exception {
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicInteger added = new AtomicInteger(), deleted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            threads.add(new Thread(() -> run(start, errors, () -> {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    List<Vokabel> page = db.getVokabelPage(setId, 0, 100);
+                    for (int p = 1; p < page.size(); p++) {
+                        if (page.get(p).getId() <= page.get(p - 1).getId()) throw new AssertionError("Seite nicht sortiert");
+                    }
+                    if (db.countVokabeln(setId) < INITIAL_ROWS - WRITERS * OPERATIONS) throw new AssertionError("Zeilen verloren");
+                    if (db.getAllSets().isEmpty()) throw new AssertionError("Sets verschwunden");
+                }
+            }), "Reader-" + r));
+        }
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            threads.add(new Thread(() -> run(start, errors, () -> {
+                List<Integer> mine = new ArrayList<>();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    switch (i % 3) {
+                        case 0:
+                            mine.add(db.addVokabel(setId, "neu" + writer + "-" + i, "new"));
+                            added.incrementAndGet();
+                            break;
+                        case 1:
+                            int id = mine.get(mine.size() - 1);
+                            db.updateVokabeln(Collections.singletonList(new Vokabel(id, "neu" + writer + "-" + i, "changed")));
+                            break;
+                        default:
+                            db.deleteVokabel(mine.remove(0));
+                            deleted.incrementAndGet();
+                    }
+                }
+            }), "Writer-" + w));
+        }
+        for (Thread thread : threads) thread.start();
+        start.countDown();
+        for (Thread thread : threads) thread.join(TimeUnit.MINUTES.toMillis(2));
+
+        if (!errors.isEmpty()) {
+            AssertionError failure = new AssertionError(errors.size() + " Fehler, der erste:", errors.peek());
+            errors.forEach(failure::addSuppressed);
+            throw failure;
+        }
+        assertEquals(INITIAL_ROWS + added.get() - deleted.get(), db.countVokabeln(setId));
+        assertEquals(db.countVokabeln(setId), db.getVokabelnBySet(setId).size());
+    }
+
+    /** A reload issued right after a write, without waiting for it, still sees the write. */
+    @Test
+    void asyncReadsNeverOvertakeEarlierWrites() throws Exception {
+        AsyncDatabase async = new AsyncDatabase(db);
+        try {
+            List<CompletableFuture<Integer>> ids = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String original = "geordnet" + i;
+                ids.add(async.addVokabel(setId, original, "ordered"));
+                int expected = INITIAL_ROWS + i + 1;
+                CompletableFuture<List<Vokabel>> reload = async.getVokabelnBySet(setId);
+                assertEquals(expected, reload.get(30, TimeUnit.SECONDS).size(), "reload " + i + " missed its write");
+            }
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(ids.get(i).get() > ids.get(i - 1).get(), "writes ran out of order");
+            }
+        } finally {
+            async.shutdown();
+        }
+    }
+
+    /**
+     * Read throughput grows with the number of reading threads up to the read connections.
+     * Needs as many cores as read connections, so it is skipped on smaller machines.
+     */
+    @Test
+    void readsScaleWithThreads() throws Exception {
+        int threads = 4;
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= threads, "needs " + threads + " cores");
+        double single = readsPerSecond(1);
+        double parallel = readsPerSecond(threads);
+        assertTrue(parallel >= single * threads * 0.6,
+                String.format("1 Thread: %.0f/s, %d Threads: %.0f/s", single, threads, parallel));
+    }
+
+    private double readsPerSecond(int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            List<Future<Integer>> counts = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                counts.add(pool.submit(() -> {
+                    int reads = 0;
+                    while (System.nanoTime() < end) {
+                        db.getVokabelPage(setId, (reads * 97) % INITIAL_ROWS, 100);
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            long total = 0;
+            for (Future<Integer> count : counts) total += count.get();
+            return total * 1e9 / (System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    interface Work {
+        void run() throws Exception;
+    }
+
+    private static void run(CountDownLatch start, ConcurrentLinkedQueue<Throwable> errors, Work work) {
+        try {
+            start.await();
+            work.run();
+        } catch (Throwable t) {
+            errors.add(t);
+        }
+    }
+}
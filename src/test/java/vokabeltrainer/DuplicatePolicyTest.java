@@ -0,0 +1,133 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Duplicate detection on insert and when cleaning up a set. */
+class DuplicatePolicyTest {
+    @TempDir
+    Path dir;
+    private DatabaseManager db;
+    private int setId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseManager(TestDatabase.config(dir));
+        db.initialize();
+        setId = TestDatabase.createSet(db, "Englisch");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    private static List<String[]> rows(String... pairs) {
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i + 1 < pairs.length; i += 2) rows.add(new String[]{pairs[i], pairs[i + 1]});
+        return rows;
+    }
+
+    @Test
+    void originalsWithoutLettersAreNeverDuplicates() throws Exception {
+        assertEquals("", DuplicatePolicy.key("?!"));
+        DuplicateReport report = db.insertVokabelnBatch(setId, rows("?!", "Interrobang", "...", "Ellipse", "Haus", "house"),
+                DuplicatePolicy.SKIP, null);
+        assertEquals(3, report.getInserted());
+        assertEquals(0, report.getDuplicates());
+
+        assertEquals(0, db.deduplicateSet(setId, DuplicatePolicy.SKIP).getDuplicates());
+        assertEquals(3, db.countVokabeln(setId));
+    }
+
+    @Test
+    void editsToOriginalsWithoutLettersStoreNoKey() throws Exception {
+        db.setUndoJournal(new UndoJournal(UndoJournal.DEFAULT_MAX_BYTES));
+        db.insertVokabelnBatch(setId, rows("Haus", "house", "Baum", "tree"), DuplicatePolicy.SKIP, null);
+        List<Vokabel> before = db.getVokabelnBySet(setId);
+        int haus = before.get(0).getId(), baum = before.get(1).getId();
+
+        assertEquals(2, db.updateVokabeln(List.of(new Vokabel(haus, "?!", "Interrobang"), new Vokabel(baum, "...", "Ellipse"))));
+        assertEquals(Arrays.asList(null, null), storedKeys("test.db", setId));
+        assertEquals(0, db.deduplicateSet(setId, DuplicatePolicy.SKIP).getDuplicates());
+
+        db.undo();
+        assertEquals(List.of(DuplicatePolicy.key("Haus"), DuplicatePolicy.key("Baum")), storedKeys("test.db", setId));
+    }
+
+    @Test
+    void migrationGivesOriginalsWithoutLettersNoKey() throws Exception {
+        // A database from before the duplicate key column
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("alt.db"));
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE vokabel_sets (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE)");
+            stmt.execute("CREATE TABLE vokabeln (id INTEGER PRIMARY KEY AUTOINCREMENT, set_id INTEGER NOT NULL, " +
+                    "original TEXT NOT NULL, translation TEXT NOT NULL)");
+            stmt.execute("INSERT INTO vokabel_sets (id, name) VALUES (1, 'Englisch')");
+            stmt.execute("INSERT INTO vokabeln (set_id, original, translation) VALUES " +
+                    "(1, '?!', 'Interrobang'), (1, '...', 'Ellipse'), (1, 'Haus', 'house'), (1, 'haus', 'home')");
+        }
+        DatabaseManager migrated = new DatabaseManager(
+                TestDatabase.config(dir, "db.url", "jdbc:sqlite:" + dir.resolve("alt.db")));
+        migrated.initialize();
+        migrated.close();
+        assertEquals(Arrays.asList(null, null, DuplicatePolicy.key("Haus"), null), storedKeys("alt.db", 1));
+    }
+
+    /** The norm_key column of a set, in id order. */
+    private List<String> storedKeys(String file, int setId) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve(file));
+             PreparedStatement select = conn.prepareStatement("SELECT norm_key FROM vokabeln WHERE set_id = ? ORDER BY id")) {
+            select.setInt(1, setId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) keys.add(rs.getString(1));
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    void knownKeysOnlyLearnCommittedRows() throws Exception {
+        Set<String> knownKeys = db.loadDuplicateKeys(setId);
+        // NOT NULL on translation fails the whole chunk
+        assertThrows(SQLException.class,
+                () -> db.insertVokabelnBatch(setId, rows("Haus", "house", "Baum", null), DuplicatePolicy.SKIP, knownKeys));
+        assertTrue(knownKeys.isEmpty(), "keys of a rolled back chunk: " + knownKeys);
+
+        DuplicateReport report = db.insertVokabelnBatch(setId, rows("Haus", "house"), DuplicatePolicy.SKIP, knownKeys);
+        assertEquals(1, report.getInserted());
+        assertEquals(Set.of(DuplicatePolicy.key("Haus")), knownKeys);
+    }
+
+    @Test
+    void rowsTheKeyIndexTurnsAwayAreReported() throws Exception {
+        db.insertVokabelnBatch(setId, rows("Haus", "house"), DuplicatePolicy.SKIP, null);
+        // Stale keys, e.g. loaded before another writer added "Haus"
+        DuplicateReport report = db.insertVokabelnBatch(setId, rows("Haus", "home", "Baum", "tree"),
+                DuplicatePolicy.SKIP, new HashSet<>());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getSkipped());
+        assertTrue(report.getExamples().get(0).startsWith("Haus → home"), report.getExamples().toString());
+        assertEquals(2, db.countVokabeln(setId));
+    }
+}
@@ -0,0 +1,159 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** The quiz engine on its own: no Swing, no database, just vokabeln in memory. */
+class QuizSessionTest {
+    private static final int SET_SIZE = 10_000;
+    private static final long SIMULATED_ANSWERS = 3_000_000;
+
+    private static List<Vokabel> vokabeln;
+    private static AnswerMatcher matcher;
+    private static Map<Integer, AnswerMatcher.PreparedAnswer[]> prepared;
+
+    @BeforeAll
+    static void setUp() {
+        vokabeln = new ArrayList<>(SET_SIZE);
+        for (int i = 1; i <= SET_SIZE; i++) vokabeln.add(new Vokabel(i, "Wort" + i, "word" + i + "; term" + i));
+        matcher = AnswerMatcher.fromConfig(new AppConfig(new Properties()));
+        prepared = matcher.prepareAll(vokabeln);
+    }
+
+    private static QuizSession session(List<Vokabel> vokabeln, QuizSession.Direction direction) {
+        return QuizSession.of(vokabeln, prepared, matcher, direction, new Random(42));
+    }
+
+    @Test
+    void walksThroughTheStatesAndAsksEveryVokabelOnce() {
+        List<Vokabel> five = vokabeln.subList(0, 5);
+        List<Vokabel> before = new ArrayList<>(five);
+        QuizSession session = session(five, QuizSession.Direction.FORWARD);
+        assertEquals(QuizSession.State.READY, session.getState());
+        assertThrows(IllegalStateException.class, () -> session.answer("word1"));
+
+        Set<Integer> asked = new HashSet<>();
+        int expectedCorrect = 0;
+        while (session.next()) {
+            assertEquals(QuizSession.State.ASKING, session.getState());
+            assertThrows(IllegalStateException.class, session::next, "next while a question is open");
+            assertTrue(asked.add(session.getCurrent().getId()), "asked twice: " + session.getCurrent());
+            assertEquals(session.getCurrent().getOriginal(), session.getPrompt());
+            // Every other answer is wrong; the synonym after ';' counts as correct
+            boolean right = asked.size() % 2 == 1;
+            String typed = right ? "term" + session.getCurrent().getId() : "falsch";
+            if (right) expectedCorrect++;
+            AnswerMatcher.Verdict verdict = session.answer(typed);
+            assertEquals(right ? AnswerMatcher.Verdict.CORRECT : AnswerMatcher.Verdict.WRONG, verdict);
+            assertEquals(QuizSession.State.ANSWERED, session.getState());
+            assertSame(verdict, session.getLastVerdict());
+            assertThrows(IllegalStateException.class, () -> session.answer(typed), "answered twice");
+            assertEquals(five.size() - asked.size(), session.getRemaining());
+        }
+        assertEquals(QuizSession.State.FINISHED, session.getState());
+        assertFalse(session.next());
+        assertEquals(five.size(), asked.size());
+        assertEquals(five.size(), session.getTotalCount());
+        assertEquals(expectedCorrect, session.getCorrectCount());
+        assertEquals(60, session.getPercent());
+        assertEquals(before, five, "the shared list must not be reordered");
+    }
+
+    @Test
+    void reverseAsksForTheOriginalAndToleratesTypos() {
+        QuizSession session = session(vokabeln.subList(0, 1), QuizSession.Direction.REVERSE);
+        assertTrue(session.next());
+        assertTrue(session.isReverse());
+        assertEquals("word1; term1", session.getPrompt());
+        assertEquals(AnswerMatcher.Verdict.TYPO, session.answer("Wrot1"));
+        assertEquals(1, session.getCorrectCount());
+    }
+
+    @Test
+    void finishEndsTheSessionEarly() {
+        QuizSession session = session(vokabeln, QuizSession.Direction.MIXED);
+        assertTrue(session.next());
+        session.finish();
+        assertEquals(QuizSession.State.FINISHED, session.getState());
+        assertFalse(session.next());
+        assertEquals(0, session.getTotalCount());
+    }
+
+    @Test
+    void lapsedReviewCardsComeBackInTheSameSession() {
+        long[] now = {1_000_000};
+        List<ReviewState> cards = new ArrayList<>();
+        for (Vokabel v : vokabeln.subList(0, 3)) cards.add(ReviewState.newCard(v, now[0]));
+        List<ReviewState> saved = new ArrayList<>();
+        QuizSession session = QuizSession.review(cards, prepared, matcher, QuizSession.Direction.FORWARD, new Random(1),
+                new SpacedRepetitionScheduler(), () -> now[0], saved::add);
+        assertTrue(session.isReview());
+
+        int answers = 0;
+        boolean lapsed = false;
+        while (session.next()) {
+            Vokabel current = session.getCurrent();
+            // The first card is answered wrong once and has to come back
+            boolean wrong = current.getId() == 1 && !lapsed;
+            lapsed |= wrong;
+            session.answer(wrong ? "falsch" : session.getExpected());
+            answers++;
+        }
+        assertEquals(4, answers);
+        assertEquals(4, saved.size());
+        ReviewState relearned = saved.get(saved.size() - 1);
+        assertEquals(1, relearned.getVokabel().getId(), "the lapsed card is asked last");
+        assertEquals(1, relearned.getLapses());
+        assertEquals(1, relearned.getRepetitions());
+    }
+
+    /**
+     * Simulated learners: sessions over a shared {@value #SET_SIZE}-word set, created and answered
+     * back to back on one thread. A single core manages 1-1.5 million answers per second; the bar
+     * is half that so slow build machines pass. Sessions only share the set and the lock-free
+     * latency histogram, so more threads add to the rate.
+     */
+    @Test
+    void simulatesMillionsOfAnswersPerSecond() {
+        String[][] typed = new String[SET_SIZE + 1][];
+        for (Vokabel v : vokabeln) {
+            typed[v.getId()] = new String[]{"word" + v.getId(), "wrod" + v.getId(), "falsch"};
+        }
+        simulate(typed, SIMULATED_ANSWERS / 3);
+        long start = System.nanoTime();
+        long sessions = simulate(typed, SIMULATED_ANSWERS);
+        double perSecond = SIMULATED_ANSWERS * 1e9 / (System.nanoTime() - start);
+        assertEquals(SIMULATED_ANSWERS / SET_SIZE, sessions);
+        assertTrue(perSecond >= 500_000, String.format("%.0f answers/s", perSecond));
+    }
+
+    /** Answers {@code answers} questions, starting a new session whenever one finishes; returns the sessions used. */
+    private static long simulate(String[][] typed, long answers) {
+        Random random = new Random(7);
+        QuizSession session = QuizSession.of(vokabeln, prepared, matcher, QuizSession.Direction.FORWARD, random);
+        long sessions = 1;
+        for (long n = 0; n < answers; n++) {
+            if (!session.next()) {
+                session = QuizSession.of(vokabeln, prepared, matcher, QuizSession.Direction.FORWARD, random);
+                sessions++;
+                session.next();
+            }
+            session.answer(typed[session.getCurrent().getId()][(int) (n % 3)]);
+        }
+        return sessions;
+    }
+}
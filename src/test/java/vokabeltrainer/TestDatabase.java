@@ -0,0 +1,27 @@
+package vokabeltrainer;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/** Throw-away databases for the tests, one file per JUnit temp directory. */
+final class TestDatabase {
+    private TestDatabase() {
+    }
+
+    /** Config for {@code dir/test.db}, followed by optional key/value overrides. */
+    static AppConfig config(Path dir, String... overrides) {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:sqlite:" + dir.resolve("test.db"));
+        for (int i = 0; i + 1 < overrides.length; i += 2) properties.setProperty(overrides[i], overrides[i + 1]);
+        return new AppConfig(properties);
+    }
+
+    static int createSet(DatabaseManager db, String name) throws SQLException {
+        db.createSet(name);
+        for (VokabelSet set : db.getAllSets()) {
+            if (set.getName().equals(name)) return set.getId();
+        }
+        throw new SQLException("Set " + name + " wurde nicht angelegt");
+    }
+}
@@ -0,0 +1,77 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** A failed undo keeps its entry unless replaying it can never work. */
+class UndoJournalTest {
+    @TempDir
+    Path dir;
+    private DatabaseManager db;
+    private int setId;
+    // The undo stack holds the add and, on top of it, the delete
+    private String addLabel, deleteLabel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseManager(TestDatabase.config(dir, "db.busy_timeout", "100"));
+        db.initialize();
+        db.setUndoJournal(new UndoJournal(UndoJournal.DEFAULT_MAX_BYTES));
+        setId = TestDatabase.createSet(db, "Englisch");
+        int vokabelId = db.addVokabel(setId, "Haus", "house");
+        addLabel = db.getUndoJournal().getUndoLabel();
+        db.deleteVokabel(vokabelId);
+        deleteLabel = db.getUndoJournal().getUndoLabel();
+        assertNotEquals(addLabel, deleteLabel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    private Connection otherConnection() throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("test.db"));
+    }
+
+    @Test
+    void busyDatabaseKeepsTheEntry() throws Exception {
+        try (Connection other = otherConnection(); Statement stmt = other.createStatement()) {
+            // Another process holds the write lock past the busy timeout
+            stmt.execute("BEGIN IMMEDIATE");
+            SQLException error = assertThrows(SQLException.class, db::undo);
+            assertEquals(5, error.getErrorCode() & 0xff, "SQLITE_BUSY");
+            assertNotNull(error.getCause(), "the busy error comes wrapped with a hint that the step is kept");
+            assertEquals(deleteLabel, db.getUndoJournal().getUndoLabel());
+            stmt.execute("ROLLBACK");
+        }
+        db.undo();
+        assertEquals("Haus", db.getVokabelnBySet(setId).get(0).getOriginal());
+        assertEquals(addLabel, db.getUndoJournal().getUndoLabel());
+    }
+
+    @Test
+    void vanishedSetDiscardsTheEntry() throws Exception {
+        try (Connection other = otherConnection(); Statement stmt = other.createStatement()) {
+            stmt.executeUpdate("DELETE FROM vokabel_sets WHERE id = " + setId);
+        }
+        SQLException error = assertThrows(SQLException.class, db::undo);
+        assertEquals(UndoJournal.INTEGRITY_VIOLATION, error.getSQLState());
+        assertEquals(addLabel, db.getUndoJournal().getUndoLabel());
+        assertNull(db.getUndoJournal().getRedoLabel());
+    }
+}
@@ -0,0 +1,151 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/** Export followed by import or by reading the binary file back yields the same vokabeln. */
+class VokabelExportTest {
+    // Delimiters, quotes, line breaks and non-ASCII text, the cases the writers have to escape
+    private static final String[][] ROWS = {
+        {"Haus", "house"},
+        {"Komma, mitten drin", "with, comma"},
+        {"\"Zitat\"", "quote \"inside\""},
+        {"zwei\nZeilen", "two\r\nlines"},
+        {"Tab\tdazwischen", "tab"},
+        {"Grüße, Straße", "greetings 😀"},
+    };
+
+    @TempDir
+    Path dir;
+    private DatabaseManager db;
+    private int setId, otherSetId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseManager(TestDatabase.config(dir));
+        db.initialize();
+        setId = TestDatabase.createSet(db, "Englisch");
+        otherSetId = TestDatabase.createSet(db, "Französisch, Teil 2");
+        for (String[] row : ROWS) db.addVokabel(setId, row[0], row[1]);
+        db.addVokabel(otherSetId, "Brot", "pain");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(VokabelExporter.Format.class)
+    void exportedSetImportsBackUnchanged(VokabelExporter.Format format) throws Exception {
+        Path file = dir.resolve("englisch." + (format == VokabelExporter.Format.BINARY ? "vokb" : format.name().toLowerCase()));
+        VokabelExporter.ExportResult exported = new VokabelExporter(db).export(file, setId, format);
+        assertEquals(ROWS.length, exported.rows);
+
+        int copyId = TestDatabase.createSet(db, "Kopie");
+        VokabelImporter.ImportResult imported = new VokabelImporter(db, 2).importFile(file, copyId, null);
+        assertEquals(ROWS.length, imported.rows);
+        assertEquals(0, imported.skipped);
+        String[][] expected = pairs(db.getVokabelnBySet(setId));
+        if (format != VokabelExporter.Format.BINARY) {
+            // Text import reads line by line, so a CRLF inside a quoted field comes back as LF
+            for (String[] pair : expected) pair[1] = pair[1].replace("\r\n", "\n");
+        }
+        assertArrayEquals(expected, pairs(db.getVokabelnBySet(copyId)));
+    }
+
+    @Test
+    void binaryExportOfAllSetsReadsBackWithoutCopying() throws Exception {
+        Path file = dir.resolve("alle.vokb");
+        VokabelExporter.ExportResult exported = new VokabelExporter(db).export(file, null, VokabelExporter.Format.BINARY);
+        assertEquals(ROWS.length + 1, exported.rows);
+
+        Map<Integer, String> setNames = new HashMap<>();
+        Map<Integer, List<String[]>> bySet = new HashMap<>();
+        try (VokabelBinaryReader reader = new VokabelBinaryReader(file)) {
+            byte type;
+            while ((type = reader.next()) != VokabelBinaryReader.END) {
+                if (type == VokabelBinaryReader.SET) {
+                    setNames.put(reader.setId(), VokabelBinaryReader.text(reader.setName()));
+                } else {
+                    bySet.computeIfAbsent(reader.setId(), k -> new ArrayList<>()).add(new String[]{
+                        Integer.toString(reader.id()),
+                        VokabelBinaryReader.text(reader.original()),
+                        VokabelBinaryReader.text(reader.translation())});
+                }
+            }
+            assertEquals(exported.rows, reader.declaredCount());
+            assertEquals(reader.size(), reader.position());
+        }
+        assertEquals("Englisch", setNames.get(setId));
+        assertEquals("Französisch, Teil 2", setNames.get(otherSetId));
+        assertArrayEquals(withIds(db.getVokabelnBySet(setId)), bySet.get(setId).toArray(new String[0][]));
+        assertArrayEquals(withIds(db.getVokabelnBySet(otherSetId)), bySet.get(otherSetId).toArray(new String[0][]));
+    }
+
+    @Test
+    void truncatedBinaryExportIsRejected() throws Exception {
+        Path file = dir.resolve("abgeschnitten.vokb");
+        new VokabelExporter(db).export(file, setId, VokabelExporter.Format.BINARY);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 20);
+        }
+        try (VokabelBinaryReader reader = new VokabelBinaryReader(file)) {
+            assertThrows(IOException.class, () -> {
+                while (reader.next() != VokabelBinaryReader.END) {
+                    // read to the cut
+                }
+            });
+        }
+    }
+
+    @Test
+    void importProgressCountsFileBytes() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) csv.append("Übergröße").append(i).append(",Äöü ").append(i).append('\n');
+        Path file = Files.writeString(dir.resolve("umlaute.csv"), csv);
+        long size = Files.size(file);
+        List<long[]> progress = new ArrayList<>();
+        new VokabelImporter(db, 1_000).importFile(file, otherSetId,
+                (rows, bytesRead, totalBytes, rowsPerSecond) -> progress.add(new long[]{bytesRead, totalBytes}));
+
+        long before = 0;
+        for (long[] p : progress) {
+            assertTrue(p[0] >= before && p[0] <= size, p[0] + " of " + size);
+            assertEquals(size, p[1]);
+            before = p[0];
+        }
+        // Counting chars would end a fifth short of the file size
+        long lastChunk = progress.get(progress.size() - 2)[0];
+        assertTrue(lastChunk > csv.length(), lastChunk + " bytes for " + csv.length() + " chars");
+    }
+
+    private static String[][] pairs(List<Vokabel> vokabeln) {
+        return vokabeln.stream().map(v -> new String[]{v.getOriginal(), v.getTranslation()}).toArray(String[][]::new);
+    }
+
+    private static String[][] withIds(List<Vokabel> vokabeln) {
+        return vokabeln.stream()
+                .map(v -> new String[]{Integer.toString(v.getId()), v.getOriginal(), v.getTranslation()})
+                .toArray(String[][]::new);
+    }
+}
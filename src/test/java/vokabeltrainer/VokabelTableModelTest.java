@@ -0,0 +1,140 @@
+package vokabeltrainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Single-row inserts and deletes reach the table as row events at the right position, worked out
+ * from the cached pages; rows outside them fall back to a full refresh that keeps earlier pages.
+ */
+class VokabelTableModelTest {
+    private static final int ROWS = 5 * VokabelTableModel.PAGE_SIZE;
+
+    @TempDir
+    Path dir;
+    private DatabaseManager db;
+    private AsyncDatabase async;
+    private VokabelTableModel model;
+    private int setId;
+    private final List<TableModelEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new DatabaseManager(TestDatabase.config(dir));
+        db.initialize();
+        db.setUndoJournal(new UndoJournal(UndoJournal.DEFAULT_MAX_BYTES));
+        setId = TestDatabase.createSet(db, "Englisch");
+        List<String[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) rows.add(new String[]{"wort" + i, "word" + i});
+        db.insertVokabelnBatch(setId, rows, DuplicatePolicy.KEEP_BOTH, null);
+        async = new AsyncDatabase(db);
+        model = onEdt(() -> new VokabelTableModel(async));
+        model.load(setId).get(30, TimeUnit.SECONDS);
+        onEdt(() -> model.addTableModelListener(events::add));
+    }
+
+    @AfterEach
+    void tearDown() {
+        async.shutdown();
+        db.close();
+    }
+
+    @Test
+    void deleteAndRestoreInsideTheCachedPagesAreRowEvents() throws Exception {
+        cache(0, 2);
+        int row = 2 * VokabelTableModel.PAGE_SIZE + 50;
+        Vokabel deleted = onEdt(() -> model.getVokabelAt(row));
+        Vokabel next = onEdt(() -> model.getVokabelAt(row + 1));
+
+        db.deleteVokabel(deleted.getId());
+        assertEquals(List.of(TableModelEvent.DELETE + "@" + row), drainEvents());
+        assertEquals(ROWS - 1, (int) onEdt(model::getRowCount));
+        assertEquals(next.getId(), onEdt(() -> model.getVokabelAt(row)).getId());
+
+        db.undo();
+        assertEquals(List.of(TableModelEvent.INSERT + "@" + row), drainEvents());
+        assertEquals(ROWS, (int) onEdt(model::getRowCount));
+        assertEquals(deleted.getId(), onEdt(() -> model.getVokabelAt(row)).getId());
+    }
+
+    @Test
+    void appendToTheCachedLastPageIsARowEvent() throws Exception {
+        cache(4);
+        int id = db.addVokabel(setId, "neu", "new");
+        assertEquals(List.of(TableModelEvent.INSERT + "@" + ROWS), drainEvents());
+        assertEquals(id, onEdt(() -> model.getVokabelAt(ROWS)).getId());
+    }
+
+    @Test
+    void changesOutsideTheCachedPagesRefreshFromThere() throws Exception {
+        cache(0, 2);
+        Vokabel uncached = db.getVokabelPageAt(setId, VokabelTableModel.PAGE_SIZE + 10, 1).get(0);
+
+        db.deleteVokabel(uncached.getId());
+        assertEquals(List.of(TableModelEvent.UPDATE + "@0"), drainEvents());
+        assertEquals(ROWS - 1, (int) onEdt(model::getRowCount));
+        assertNotNull(onEdt(() -> model.getVokabelAt(0)), "pages before the change stay cached");
+        assertNull(onEdt(() -> model.getVokabelAt(2 * VokabelTableModel.PAGE_SIZE)), "pages after it are refetched");
+
+        db.addVokabel(setId, "neu", "new");
+        assertEquals(List.of(TableModelEvent.UPDATE + "@0"), drainEvents());
+        assertEquals(ROWS, (int) onEdt(model::getRowCount));
+    }
+
+    /** Requests the pages and waits until all of them are loaded. */
+    private void cache(int... pageIndexes) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (int page : pageIndexes) {
+            int row = page * VokabelTableModel.PAGE_SIZE;
+            while (onEdt(() -> { model.getValueAt(row, 1); return model.getVokabelAt(row); }) == null) {
+                assertTrue(System.nanoTime() < deadline, "page " + page + " did not load");
+                Thread.sleep(10);
+            }
+        }
+        drainEvents();
+    }
+
+    /** Table events since the last call as "type@firstRow"; changes reach the EDT before the write returns. */
+    private List<String> drainEvents() throws Exception {
+        return onEdt(() -> {
+            List<String> drained = new ArrayList<>();
+            for (TableModelEvent e : events) drained.add(e.getType() + "@" + e.getFirstRow());
+            events.clear();
+            return drained;
+        });
+    }
+
+    private static <T> T onEdt(Callable<T> work) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(work.call());
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+        if (error.get() != null) throw error.get();
+        return result.get();
+    }
+
+    private static void onEdt(Runnable work) throws Exception {
+        SwingUtilities.invokeAndWait(work);
+    }
+}
@@ -25,9 +25,18 @@ if not exist "slf4j-simple.jar" (
     echo.
 )
 
+REM Mit CDS-Archiv (erzeugt von cds.bat) aus der JAR starten, ohne neu zu kompilieren
+if exist "vokabeltrainer.jsa" if exist "vokabeltrainer.jar" (
+    echo Schnellstart mit CDS-Archiv - nach Code-Aenderungen cds.bat erneut ausfuehren
+    echo.
+    java -XX:SharedArchiveFile=vokabeltrainer.jsa -cp "vokabeltrainer.jar;sqlite-jdbc.jar;slf4j-api.jar;slf4j-simple.jar" vokabeltrainer.Vokabeltrainer
+    pause
+    exit /b 0
+)
+
 REM Kompilieren
-echo Kompiliere Vokabeltrainer.java...
-javac -encoding UTF-8 -cp ".;sqlite-jdbc.jar" Vokabeltrainer.java
+echo Kompiliere src\main\java\vokabeltrainer\Vokabeltrainer.java...
+javac -encoding UTF-8 -d classes -cp "sqlite-jdbc.jar" src\main\java\vokabeltrainer\Vokabeltrainer.java
 
 if %ERRORLEVEL% NEQ 0 (
     echo.
@@ -42,6 +51,6 @@ echo Starte Vokabeltrainer...
 echo.
 
 REM Starten
-java -cp ".;sqlite-jdbc.jar;slf4j-api.jar;slf4j-simple.jar" Vokabeltrainer
+java -cp "classes;sqlite-jdbc.jar;slf4j-api.jar;slf4j-simple.jar" vokabeltrainer.Vokabeltrainer
 
 pause